@@ -0,0 +1,31 @@
+package com.miapp.gestortareas;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Arranca la aplicación completa sobre una H2 en memoria propia, para los benchmarks
+ * que necesitan repositorios y transacciones reales.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        String[] base = {
+            "--server.port=0",
+            "--management.server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+            "--spring.jpa.open-in-view=false",
+            "--logging.level.root=WARN",
+            "--springdoc.api-docs.enabled=false",
+            // Los benchmarks miden el servidor, no el límite de peticiones por cliente
+            "--security.rate-limit.enabled=false"
+        };
+        String[] args = new String[base.length + extraArgs.length];
+        System.arraycopy(base, 0, args, 0, base.length);
+        System.arraycopy(extraArgs, 0, args, base.length, extraArgs.length);
+        return SpringApplication.run(GestortareasApplication.class, args);
+    }
+}
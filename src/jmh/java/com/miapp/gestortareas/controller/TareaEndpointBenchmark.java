@@ -0,0 +1,97 @@
+package com.miapp.gestortareas.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.miapp.gestortareas.BenchmarkContext;
+import com.miapp.gestortareas.DTOs.CreateTareaRequest;
+import com.miapp.gestortareas.DTOs.RegisterRequest;
+import com.miapp.gestortareas.model.Prioridad;
+import com.miapp.gestortareas.repository.UserRepository;
+import com.miapp.gestortareas.service.TareaService;
+import com.miapp.gestortareas.service.UserService;
+
+/**
+ * GET /api/tareas por HTTP con mucha concurrencia, comparando el pool de hilos de Tomcat
+ * con hilos virtuales. Throughput da peticiones/s y SampleTime los percentiles (p99).
+ * El modo virtual solo tiene efecto si la JVM es Java 21 o superior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class TareaEndpointBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtual;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.println("Aviso: Java " + Runtime.version().feature()
+                    + " no tiene hilos virtuales; ambas variantes usarán el pool de Tomcat");
+        }
+        context = BenchmarkContext.start("--spring.threads.virtual.enabled=" + virtual);
+        UserService userService = context.getBean(UserService.class);
+        String token = userService.register(new RegisterRequest("bench", "bench@example.com", "password")).getAccessToken();
+        Long userId = context.getBean(UserRepository.class).findByEmail("bench@example.com").orElseThrow().getId();
+
+        List<CreateTareaRequest> lote = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CreateTareaRequest req = new CreateTareaRequest();
+            req.setTitulo("Tarea " + i);
+            req.setPrioridad(Prioridad.values()[i % Prioridad.values().length]);
+            lote.add(req);
+        }
+        context.getBean(TareaService.class).crearLote(userId, lote);
+
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tareas"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        if (listarTareas() != 200) {
+            throw new IllegalStateException("GET /api/tareas no responde 200");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listarTareas() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,93 @@
+package com.miapp.gestortareas.security;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.miapp.gestortareas.model.UserModel;
+import com.miapp.gestortareas.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Coste de emitir y verificar tokens, y del filtro JWT completo por petición.
+ * No necesita contexto de Spring: el repositorio de usuarios es un stub en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtUtil jwtUtil;
+    private JwtFilter jwtFilter;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "esta-es-una-clave-secreta-mucho-mas-larga-y-segura-para-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpirationTime", 604_800_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 10_000L);
+        jwtUtil.init();
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        UserModel user = UserModel.builder().id(1L).email(EMAIL).role("ROLE_USER").tokenVersion(0).build();
+        Mockito.when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtFilter = new JwtFilter(jwtUtil, new TokenVersionCache(userRepository, meterRegistry, 10_000, 60), meterRegistry);
+
+        token = jwtUtil.generarToken(EMAIL, "ROLE_USER", 0);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generarToken(EMAIL, "ROLE_USER", 0);
+    }
+
+    // Parseo y verificación de firma completos, sin caché
+    @Benchmark
+    public Integer extraerClaim() {
+        return jwtUtil.extraerClaim(token, claims -> claims.get("version", Integer.class));
+    }
+
+    // Camino que usa el filtro: token ya verificado servido desde caché
+    @Benchmark
+    public VerifiedToken verificar() {
+        return jwtUtil.verificar(token);
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tareas");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtFilter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.miapp.gestortareas.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.miapp.gestortareas.BenchmarkContext;
+import com.miapp.gestortareas.DTOs.BatchItemResult;
+import com.miapp.gestortareas.DTOs.CreateTareaRequest;
+import com.miapp.gestortareas.DTOs.RegisterRequest;
+import com.miapp.gestortareas.DTOs.UpdateTareaRequest;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+import com.miapp.gestortareas.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Mezcla de lecturas y escrituras con y sin caché de segundo nivel (cache.second-level.enabled).
+ * Por cada operación: 40 % me(), 40 % obtenerPorId(), 10 % actualizar() y 10 % actualizarEstado().
+ * Además del rendimiento informa de sentenciasSql, las sentencias JDBC preparadas por unidad de
+ * tiempo: dividido entre el rendimiento da las sentencias por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int USUARIOS = 50;
+    private static final int TAREAS_POR_USUARIO = 20;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private TareaService tareaService;
+    private UserService userService;
+    private Statistics statistics;
+    private final String[] emails = new String[USUARIOS];
+    private final Long[] userIds = new Long[USUARIOS];
+    private final List<List<Long>> tareaIds = new ArrayList<>();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Sentencias {
+        public long sentenciasSql;
+    }
+
+    @State(Scope.Thread)
+    public static class Aleatorio {
+        // Semilla fija: las dos variantes ejecutan la misma secuencia de operaciones
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("--cache.second-level.enabled=" + cache,
+                "--metrics.hibernate-statistics.enabled=true");
+        tareaService = context.getBean(TareaService.class);
+        userService = context.getBean(UserService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        for (int u = 0; u < USUARIOS; u++) {
+            emails[u] = "bench" + u + "@example.com";
+            userService.register(new RegisterRequest("bench" + u, emails[u], "password"));
+            userIds[u] = userRepository.findByEmail(emails[u]).orElseThrow().getId();
+            List<CreateTareaRequest> lote = new ArrayList<>();
+            for (int i = 0; i < TAREAS_POR_USUARIO; i++) {
+                CreateTareaRequest req = new CreateTareaRequest();
+                req.setTitulo("Tarea " + i);
+                req.setPrioridad(Prioridad.MEDIA);
+                lote.add(req);
+            }
+            tareaIds.add(tareaService.crearLote(userIds[u], lote).getResultados().stream()
+                    .map(BatchItemResult::getId).toList());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object mezcla(Aleatorio aleatorio, Sentencias sentencias) {
+        SplittableRandom random = aleatorio.random;
+        int u = random.nextInt(USUARIOS);
+        Long userId = userIds[u];
+        Long tareaId = tareaIds.get(u).get(random.nextInt(TAREAS_POR_USUARIO));
+        int operacion = random.nextInt(100);
+
+        long antes = statistics.getPrepareStatementCount();
+        Object resultado;
+        if (operacion < 40) {
+            resultado = userService.me(emails[u]);
+        } else if (operacion < 80) {
+            resultado = tareaService.obtenerPorId(userId, tareaId);
+        } else if (operacion < 90) {
+            UpdateTareaRequest req = new UpdateTareaRequest();
+            req.setTitulo("Tarea editada " + operacion);
+            req.setPrioridad(Prioridad.values()[operacion % Prioridad.values().length]);
+            resultado = tareaService.actualizar(userId, tareaId, req, null);
+        } else {
+            Estado estado = Estado.values()[operacion % Estado.values().length];
+            resultado = tareaService.actualizarEstado(userId, tareaId, estado, null, null);
+        }
+        sentencias.sentenciasSql += statistics.getPrepareStatementCount() - antes;
+        return resultado;
+    }
+}
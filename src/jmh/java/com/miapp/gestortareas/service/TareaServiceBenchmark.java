@@ -0,0 +1,104 @@
+package com.miapp.gestortareas.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.miapp.gestortareas.BenchmarkContext;
+import com.miapp.gestortareas.DTOs.CreateTareaRequest;
+import com.miapp.gestortareas.DTOs.RegisterRequest;
+import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+import com.miapp.gestortareas.model.TareaModel;
+import com.miapp.gestortareas.repository.UserRepository;
+
+/**
+ * Construcción de respuestas de tareas: el mapeo entidad → DTO y una página de listar()
+ * contra H2 a distintas profundidades.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TareaServiceBenchmark {
+
+    @Param({"10000"})
+    public int tareas;
+
+    @Param({"0", "200"})
+    public int pagina;
+
+    private ConfigurableApplicationContext context;
+    private TareaService tareaService;
+    private Long userId;
+    private TareaModel tarea;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        tareaService = context.getBean(TareaService.class);
+        UserService userService = context.getBean(UserService.class);
+        userService.register(new RegisterRequest("bench", "bench@example.com", "password"));
+        userId = context.getBean(UserRepository.class).findByEmail("bench@example.com").orElseThrow().getId();
+
+        List<CreateTareaRequest> lote = new ArrayList<>();
+        for (int i = 0; i < tareas; i++) {
+            CreateTareaRequest req = new CreateTareaRequest();
+            req.setTitulo("Tarea " + i);
+            req.setDescripcion("Descripción de la tarea " + i);
+            req.setPrioridad(Prioridad.values()[i % Prioridad.values().length]);
+            lote.add(req);
+            if (lote.size() == 500) {
+                tareaService.crearLote(userId, lote);
+                lote = new ArrayList<>();
+            }
+        }
+        if (!lote.isEmpty()) {
+            tareaService.crearLote(userId, lote);
+        }
+
+        tarea = TareaModel.builder()
+                .id(1L).titulo("Preparar la presentación").descripcion("Investigar y crear las diapositivas")
+                .estado(Estado.PENDIENTE).prioridad(Prioridad.ALTA).fechaVencimiento(LocalDate.now())
+                .createdAt(Instant.now()).updatedAt(Instant.now())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TareaResponse map() {
+        return tareaService.map(tarea);
+    }
+
+    @Benchmark
+    public Page<TareaResponse> listar() {
+        return tareaService.listar(userId, PageRequest.of(pagina, 10, Sort.by("createdAt")));
+    }
+}
@@ -0,0 +1,71 @@
+package com.miapp.gestortareas.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencias (histograma HdrHistogram, memoria constante) y errores de un endpoint.
+ * Los clientes registran desde varios hilos sin bloquearse; cerrar() toma la foto del intervalo.
+ */
+class EndpointStats {
+
+    // Hasta 60 s con 3 cifras significativas
+    private static final long MAX_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Recorder recorder = new Recorder(MAX_MICROS, 3);
+    private final LongAdder peticiones = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final Map<String, LongAdder> porEstado = new ConcurrentHashMap<>();
+
+    void registrar(long nanos, int status) {
+        peticiones.increment();
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_MICROS));
+        if (status < 200 || status >= 300) {
+            error(String.valueOf(status));
+        }
+    }
+
+    // Fallo sin respuesta HTTP (conexión rechazada, timeout...): no tiene latencia que registrar
+    void fallo(String motivo) {
+        peticiones.increment();
+        error(motivo);
+    }
+
+    private void error(String motivo) {
+        errores.increment();
+        porEstado.computeIfAbsent(motivo, m -> new LongAdder()).increment();
+    }
+
+    /** Descarta lo registrado hasta ahora (calentamiento). */
+    void reiniciar() {
+        recorder.getIntervalHistogram();
+        peticiones.reset();
+        errores.reset();
+        porEstado.clear();
+    }
+
+    Result cerrar(double segundos) {
+        Histogram h = recorder.getIntervalHistogram();
+        Map<String, Long> estados = new TreeMap<>();
+        porEstado.forEach((motivo, n) -> estados.put(motivo, n.sum()));
+        long total = peticiones.sum();
+        return new Result(total, total / segundos, errores.sum(),
+                total == 0 ? 0 : (double) errores.sum() / total,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                ms(h.getValueAtPercentile(99)), ms(h.getMaxValue()), estados);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    record Result(long peticiones, double porSegundo, long errores, double tasaError,
+                  double p50, double p90, double p99, double max, Map<String, Long> errorPorEstado) {
+    }
+}
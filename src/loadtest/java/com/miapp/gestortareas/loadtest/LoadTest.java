@@ -0,0 +1,384 @@
+package com.miapp.gestortareas.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.miapp.gestortareas.GestortareasApplication;
+
+/**
+ * Prueba de carga de la API REST por HTTP. Registra los usuarios y los autentica por /auth/login,
+ * les crea unas tareas y después sube la concurrencia por escalones: en cada escalón N clientes
+ * (cada uno con su usuario) lanzan en bucle cerrado la mezcla de operaciones y renuevan el token
+ * periódicamente. Por escalón y endpoint informa de rendimiento, percentiles y errores, y al final
+ * del punto de saturación. Sin --url arranca la aplicación embebida sobre una H2 en memoria.
+ */
+public final class LoadTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] ESTADOS = {"PENDIENTE", "EN_PROGRESO", "COMPLETADA"};
+    private static final String[] PRIORIDADES = {"BAJA", "MEDIA", "ALTA"};
+    // Por encima de este porcentaje de errores el escalón se considera saturado
+    private static final double MAX_TASA_ERROR = 0.01;
+
+    private final Scenario scenario;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<UserSession> sesiones = new ArrayList<>();
+    private final Operation[] ruleta;
+
+    private LoadTest(Scenario scenario, String baseUrl) {
+        this.scenario = scenario;
+        this.baseUrl = baseUrl;
+        // Una casilla por unidad de peso: elegir la operación es un único nextInt
+        List<Operation> casillas = new ArrayList<>();
+        scenario.mix().forEach((operation, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                casillas.add(operation);
+            }
+        });
+        this.ruleta = casillas.toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Scenario scenario = Scenario.parse(args);
+        System.out.println("Escenario: " + scenario.describir());
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = scenario.url();
+        if (baseUrl == null) {
+            context = arrancarEmbebida();
+            baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            new LoadTest(scenario, baseUrl).ejecutar();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext arrancarEmbebida() {
+        return SpringApplication.run(GestortareasApplication.class,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.open-in-view=false",
+                "--logging.level.root=WARN",
+                "--springdoc.api-docs.enabled=false",
+                // Todos los clientes salen de la misma IP: con el límite por IP no pasarían del registro
+                "--security.rate-limit.enabled=false");
+    }
+
+    private void ejecutar() throws Exception {
+        Map<Operation, EndpointStats> preparacion = new EnumMap<>(Operation.class);
+        preparacion.put(Operation.REGISTER, new EndpointStats());
+        preparacion.put(Operation.LOGIN, new EndpointStats());
+        long inicio = System.nanoTime();
+        preparar(preparacion);
+        double segundosPreparacion = (System.nanoTime() - inicio) / 1e9;
+        Map<String, EndpointStats.Result> resultadosPreparacion = new LinkedHashMap<>();
+        preparacion.forEach((operation, stats) ->
+                resultadosPreparacion.put(operation.endpoint, stats.cerrar(segundosPreparacion)));
+        imprimir("Preparación (" + scenario.users() + " usuarios)", resultadosPreparacion);
+
+        List<Escalon> escalones = new ArrayList<>();
+        for (int concurrencia : scenario.concurrency()) {
+            Escalon escalon = medir(concurrencia);
+            escalones.add(escalon);
+            imprimir("Concurrencia " + concurrencia, escalon.endpoints());
+        }
+
+        Integer saturacion = puntoDeSaturacion(escalones);
+        System.out.println(saturacion == null
+                ? "Punto de saturación: no alcanzado; conviene probar con más concurrencia"
+                : "Punto de saturación: concurrencia " + saturacion
+                        + " (por encima el rendimiento crece menos de un " + Math.round(scenario.saturationGain() * 100)
+                        + " % o los errores superan el " + Math.round(MAX_TASA_ERROR * 100) + " %)");
+        guardar(resultadosPreparacion, escalones, saturacion);
+    }
+
+    // ---------- PREPARACIÓN ----------
+    private void preparar(Map<Operation, EndpointStats> stats) throws Exception {
+        for (int i = 0; i < scenario.users(); i++) {
+            UserSession sesion = new UserSession(i, scenario.seed());
+            ObjectNode registro = mapper.createObjectNode()
+                    .put("nombre", sesion.username)
+                    .put("email", sesion.email)
+                    .put("password", sesion.password);
+            // Un 409 es un usuario de una ejecución anterior contra el mismo servidor: basta con el login
+            HttpResponse<String> respuesta = conReintentos(post("/auth/register", null, registro), stats.get(Operation.REGISTER));
+            if (respuesta.statusCode() != 201 && respuesta.statusCode() != 409) {
+                throw new IllegalStateException("No se pudo registrar " + sesion.email + ": " + respuesta.statusCode() + " " + respuesta.body());
+            }
+
+            ObjectNode login = mapper.createObjectNode()
+                    .put("email", sesion.email)
+                    .put("password", sesion.password);
+            respuesta = conReintentos(post("/auth/login", null, login), stats.get(Operation.LOGIN));
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("No se pudo autenticar " + sesion.email + ": " + respuesta.statusCode() + " " + respuesta.body());
+            }
+            guardarTokens(sesion, respuesta.body());
+
+            // Las tareas iniciales se crean en un solo lote y no cuentan en las mediciones
+            var lote = mapper.createArrayNode();
+            for (int t = 0; t < scenario.tareasIniciales(); t++) {
+                lote.addObject().put("titulo", "Tarea " + t).put("prioridad", PRIORIDADES[t % PRIORIDADES.length]);
+            }
+            respuesta = client.send(post("/api/tareas/batch", sesion.accessToken, lote), HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("No se pudieron crear las tareas de " + sesion.email + ": " + respuesta.statusCode());
+            }
+            for (JsonNode resultado : mapper.readTree(respuesta.body()).path("resultados")) {
+                if (resultado.hasNonNull("id")) {
+                    sesion.tareas.add(resultado.get("id").asLong());
+                }
+            }
+            sesiones.add(sesion);
+        }
+    }
+
+    // El hash de contraseñas tiene un límite de concurrencia y responde 503 + Retry-After al saturarse
+    private HttpResponse<String> conReintentos(HttpRequest request, EndpointStats stats) throws Exception {
+        for (int intento = 1; ; intento++) {
+            long inicio = System.nanoTime();
+            HttpResponse<String> respuesta = client.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.registrar(System.nanoTime() - inicio, respuesta.statusCode());
+            if (respuesta.statusCode() != 503 || intento == 5) {
+                return respuesta;
+            }
+            long espera = respuesta.headers().firstValueAsLong("Retry-After").orElse(1);
+            TimeUnit.SECONDS.sleep(espera);
+        }
+    }
+
+    // ---------- ESCALÓN DE CARGA ----------
+    private Escalon medir(int concurrencia) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        scenario.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+        stats.put(Operation.REFRESH, new EndpointStats());
+        EndpointStats total = new EndpointStats();
+
+        Cliente[] clientes = new Cliente[concurrencia];
+        Thread[] hilos = new Thread[concurrencia];
+        for (int i = 0; i < concurrencia; i++) {
+            clientes[i] = new Cliente(sesiones.get(i), new SplittableRandom(scenario.seed() + i), stats, total);
+            hilos[i] = new Thread(clientes[i], "carga-" + concurrencia + "-" + i);
+            hilos[i].start();
+        }
+
+        TimeUnit.SECONDS.sleep(scenario.warmupSeconds());
+        stats.values().forEach(EndpointStats::reiniciar);
+        total.reiniciar();
+        long inicio = System.nanoTime();
+        TimeUnit.SECONDS.sleep(scenario.durationSeconds());
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<String, EndpointStats.Result> endpoints = new LinkedHashMap<>();
+        stats.forEach((operation, s) -> endpoints.put(operation.endpoint, s.cerrar(segundos)));
+        EndpointStats.Result resultadoTotal = total.cerrar(segundos);
+        endpoints.put("TOTAL", resultadoTotal);
+
+        for (Cliente cliente : clientes) {
+            cliente.parar = true;
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        return new Escalon(concurrencia, resultadoTotal, endpoints);
+    }
+
+    /** Un cliente en bucle cerrado: no envía la siguiente petición hasta recibir la anterior. */
+    private final class Cliente implements Runnable {
+
+        private final UserSession sesion;
+        private final SplittableRandom random;
+        private final Map<Operation, EndpointStats> stats;
+        private final EndpointStats total;
+        private volatile boolean parar;
+
+        private Cliente(UserSession sesion, SplittableRandom random, Map<Operation, EndpointStats> stats, EndpointStats total) {
+            this.sesion = sesion;
+            this.random = random;
+            this.stats = stats;
+            this.total = total;
+        }
+
+        @Override
+        public void run() {
+            long refreshNanos = TimeUnit.SECONDS.toNanos(scenario.refreshSeconds());
+            while (!parar) {
+                if (System.nanoTime() - sesion.ultimoRefresh >= refreshNanos) {
+                    refrescar();
+                } else {
+                    ejecutar(ruleta[random.nextInt(ruleta.length)]);
+                }
+            }
+        }
+
+        private void refrescar() {
+            ObjectNode body = mapper.createObjectNode().put("refreshToken", sesion.refreshToken);
+            HttpResponse<String> respuesta = enviar(Operation.REFRESH, post("/auth/refresh", null, body));
+            if (respuesta != null && respuesta.statusCode() == 200) {
+                guardarTokens(sesion, respuesta.body());
+            } else {
+                // Se reintentará en la siguiente vuelta; no se martillea el servidor mientras tanto
+                sesion.ultimoRefresh = System.nanoTime();
+            }
+        }
+
+        private void ejecutar(Operation operation) {
+            Long id = sesion.tareas.isEmpty() ? null : sesion.tareas.get(random.nextInt(sesion.tareas.size()));
+            HttpRequest request = switch (operation) {
+                case LIST -> peticion("/api/tareas?page=0&size=20", sesion.accessToken).GET().build();
+                case GET -> peticion("/api/tareas/" + id, sesion.accessToken).GET().build();
+                case CREATE -> post("/api/tareas", sesion.accessToken, tarea("Tarea de carga"));
+                case ESTADO -> json("PATCH", "/api/tareas/" + id + "/estado", sesion.accessToken,
+                        mapper.getNodeFactory().textNode(ESTADOS[random.nextInt(ESTADOS.length)]));
+                case PUT -> json("PUT", "/api/tareas/" + id, sesion.accessToken, tarea("Tarea editada"));
+                default -> throw new IllegalStateException("Operación fuera de la mezcla: " + operation);
+            };
+            HttpResponse<String> respuesta = enviar(operation, request);
+            if (operation == Operation.CREATE && respuesta != null && respuesta.statusCode() == 201) {
+                try {
+                    sesion.tareas.add(mapper.readTree(respuesta.body()).get("id").asLong());
+                } catch (IOException e) {
+                    throw new IllegalStateException("Respuesta de creación no válida: " + respuesta.body(), e);
+                }
+            }
+        }
+
+        private ObjectNode tarea(String titulo) {
+            return mapper.createObjectNode()
+                    .put("titulo", titulo + " " + random.nextInt(1000))
+                    .put("prioridad", PRIORIDADES[random.nextInt(PRIORIDADES.length)]);
+        }
+
+        private HttpResponse<String> enviar(Operation operation, HttpRequest request) {
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<String> respuesta = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long nanos = System.nanoTime() - inicio;
+                stats.get(operation).registrar(nanos, respuesta.statusCode());
+                if (operation != Operation.REFRESH) {
+                    total.registrar(nanos, respuesta.statusCode());
+                }
+                return respuesta;
+            } catch (IOException e) {
+                stats.get(operation).fallo(e.getClass().getSimpleName());
+                if (operation != Operation.REFRESH) {
+                    total.fallo(e.getClass().getSimpleName());
+                }
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                parar = true;
+                return null;
+            }
+        }
+    }
+
+    // ---------- HTTP ----------
+    private HttpRequest.Builder peticion(String ruta, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + ruta)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest post(String ruta, String token, JsonNode body) {
+        return json("POST", ruta, token, body);
+    }
+
+    private HttpRequest json(String metodo, String ruta, String token, JsonNode body) {
+        return peticion(ruta, token)
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private void guardarTokens(UserSession sesion, String body) {
+        try {
+            JsonNode json = mapper.readTree(body);
+            sesion.tokens(json.get("accessToken").asText(), json.get("refreshToken").asText());
+        } catch (IOException e) {
+            throw new IllegalStateException("Respuesta de autenticación no válida: " + body, e);
+        }
+    }
+
+    // ---------- RESULTADOS ----------
+    /**
+     * Último escalón que aún compensa: el siguiente mejora el rendimiento total menos de
+     * saturation-gain o supera la tasa de errores máxima. Null si ninguno se satura.
+     */
+    private Integer puntoDeSaturacion(List<Escalon> escalones) {
+        for (int i = 0; i < escalones.size(); i++) {
+            Escalon escalon = escalones.get(i);
+            if (escalon.total().tasaError() > MAX_TASA_ERROR) {
+                return i == 0 ? escalon.concurrencia() : escalones.get(i - 1).concurrencia();
+            }
+            if (i > 0) {
+                Escalon anterior = escalones.get(i - 1);
+                if (escalon.total().porSegundo() < anterior.total().porSegundo() * (1 + scenario.saturationGain())) {
+                    return anterior.concurrencia();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void imprimir(String titulo, Map<String, EndpointStats.Result> endpoints) {
+        System.out.println();
+        System.out.println("== " + titulo + " ==");
+        System.out.printf("%-32s %9s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "peticiones", "req/s", "error %", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        endpoints.forEach((endpoint, r) -> System.out.printf("%-32s %9d %9.1f %8.2f %9.2f %9.2f %9.2f %9.2f%s%n",
+                endpoint, r.peticiones(), r.porSegundo(), r.tasaError() * 100, r.p50(), r.p90(), r.p99(), r.max(),
+                r.errorPorEstado().isEmpty() ? "" : "  errores " + r.errorPorEstado()));
+    }
+
+    private void guardar(Map<String, EndpointStats.Result> preparacion, List<Escalon> escalones, Integer saturacion)
+            throws IOException {
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("escenario", scenario.describir());
+        informe.put("preparacion", preparacion);
+        informe.put("escalones", escalones);
+        informe.put("saturacion", saturacion);
+        Path salida = Path.of(scenario.out());
+        if (salida.getParent() != null) {
+            Files.createDirectories(salida.getParent());
+        }
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(salida.toFile(), informe);
+        System.out.println("Resultados en " + salida.toAbsolutePath());
+    }
+
+    record Escalon(int concurrencia, EndpointStats.Result total, Map<String, EndpointStats.Result> endpoints) {
+    }
+}
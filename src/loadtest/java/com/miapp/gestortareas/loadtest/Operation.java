@@ -0,0 +1,33 @@
+package com.miapp.gestortareas.loadtest;
+
+/**
+ * Peticiones que se miden. Las de la mezcla se eligen al azar según su peso; REGISTER, LOGIN
+ * y REFRESH se miden aparte (preparación y renovación periódica del token).
+ */
+enum Operation {
+    LIST("list", "GET /api/tareas"),
+    GET("get", "GET /api/tareas/{id}"),
+    CREATE("create", "POST /api/tareas"),
+    ESTADO("estado", "PATCH /api/tareas/{id}/estado"),
+    PUT("put", "PUT /api/tareas/{id}"),
+    REFRESH("refresh", "POST /auth/refresh"),
+    REGISTER("register", "POST /auth/register"),
+    LOGIN("login", "POST /auth/login");
+
+    final String nombre;
+    final String endpoint;
+
+    Operation(String nombre, String endpoint) {
+        this.nombre = nombre;
+        this.endpoint = endpoint;
+    }
+
+    static Operation porNombre(String nombre) {
+        for (Operation operation : values()) {
+            if (operation.nombre.equals(nombre)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida en la mezcla: " + nombre);
+    }
+}
@@ -0,0 +1,81 @@
+package com.miapp.gestortareas.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parámetros del escenario, leídos de la línea de comandos como --clave=valor.
+ * Todos tienen un valor por defecto; ver README, sección "Pruebas de carga".
+ */
+record Scenario(
+        String url,
+        int users,
+        int[] concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        int refreshSeconds,
+        int tareasIniciales,
+        Map<Operation, Integer> mix,
+        double saturationGain,
+        long seed,
+        String out) {
+
+    private static final String MIX_POR_DEFECTO = "list:35,get:30,create:10,estado:15,put:10";
+
+    static Scenario parse(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido (se espera --clave=valor): " + arg);
+            }
+            int igual = arg.indexOf('=');
+            valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+
+        int[] concurrency = Arrays.stream(valores.getOrDefault("concurrency", "4,8,16,32,64").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int maxConcurrency = Arrays.stream(concurrency).max().orElseThrow();
+        // Cada cliente usa su propio usuario: /auth/refresh revoca los tokens anteriores del usuario
+        int users = Math.max(Integer.parseInt(valores.getOrDefault("users", "0")), maxConcurrency);
+
+        Scenario scenario = new Scenario(
+                valores.get("url"),
+                users,
+                concurrency,
+                Integer.parseInt(valores.getOrDefault("warmup", "5")),
+                Integer.parseInt(valores.getOrDefault("duration", "20")),
+                Integer.parseInt(valores.getOrDefault("refresh", "30")),
+                Integer.parseInt(valores.getOrDefault("tasks", "20")),
+                parseMix(valores.getOrDefault("mix", MIX_POR_DEFECTO)),
+                Double.parseDouble(valores.getOrDefault("saturation-gain", "0.10")),
+                Long.parseLong(valores.getOrDefault("seed", "42")),
+                valores.getOrDefault("out", "target/loadtest-result.json"));
+        valores.keySet().removeAll(Arrays.asList("url", "users", "concurrency", "warmup", "duration",
+                "refresh", "tasks", "mix", "saturation-gain", "seed", "out"));
+        if (!valores.isEmpty()) {
+            throw new IllegalArgumentException("Parámetros desconocidos: " + valores.keySet());
+        }
+        return scenario;
+    }
+
+    private static Map<Operation, Integer> parseMix(String texto) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String parte : texto.split(",")) {
+            String[] claveValor = parte.trim().split(":");
+            mix.put(Operation.porNombre(claveValor[0]), Integer.parseInt(claveValor[1]));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("La mezcla de operaciones debe tener algún peso positivo: " + texto);
+        }
+        return mix;
+    }
+
+    String describir() {
+        return "usuarios=" + users + " concurrencia=" + Arrays.toString(concurrency)
+                + " calentamiento=" + warmupSeconds + "s duración=" + durationSeconds + "s refresh=" + refreshSeconds
+                + "s tareas=" + tareasIniciales + " mezcla=" + mix + " semilla=" + seed
+                + (url == null ? " (instancia embebida en H2)" : " url=" + url);
+    }
+}
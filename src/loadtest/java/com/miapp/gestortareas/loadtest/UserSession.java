@@ -0,0 +1,32 @@
+package com.miapp.gestortareas.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Usuario de la prueba: credenciales, tokens vigentes y las tareas que le pertenecen.
+ * Cada sesión la usa un único cliente a la vez, por eso no necesita sincronización.
+ */
+class UserSession {
+
+    final String username;
+    final String email;
+    final String password;
+    final List<Long> tareas = new ArrayList<>();
+    String accessToken;
+    String refreshToken;
+    long ultimoRefresh;
+
+    UserSession(int indice, long seed) {
+        // La semilla en el email permite repetir la prueba contra un servidor ya poblado
+        this.username = "carga" + indice;
+        this.email = "carga" + indice + "-" + seed + "@loadtest.local";
+        this.password = "password" + indice;
+    }
+
+    void tokens(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.ultimoRefresh = System.nanoTime();
+    }
+}
@@ -0,0 +1,33 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Aviso a un usuario con sus tareas vencidas y las que vencen pronto, respecto al día de la
+ * revisión. Se agrupa por bloque: un usuario con muchas tareas puede recibir varios avisos.
+ */
+@Data
+@AllArgsConstructor
+public class AvisoVencimiento {
+    private Long userId;
+    private LocalDate fecha;
+    private List<TareaAviso> vencidas;
+    private List<TareaAviso> proximas;
+
+    @Data
+    @AllArgsConstructor
+    public static class TareaAviso {
+        private Long id;
+        private String titulo;
+        private Prioridad prioridad;
+        private Estado estado;
+        private LocalDate fechaVencimiento;
+    }
+}
@@ -0,0 +1,15 @@
+package com.miapp.gestortareas.DTOs;
+
+import com.miapp.gestortareas.model.Estado;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BatchEstadoRequest {
+    @NotNull(message = "El id de la tarea no puede ser nulo")
+    private Long id;
+
+    @NotNull(message = "El estado no puede ser nulo")
+    private Estado estado;
+}
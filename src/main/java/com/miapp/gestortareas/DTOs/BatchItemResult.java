@@ -0,0 +1,25 @@
+package com.miapp.gestortareas.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado de un elemento de una operación por lotes.
+ * index es la posición del elemento en la petición; status sigue la semántica HTTP.
+ */
+@Data
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private Long id;
+    private int status;
+    private String error;
+
+    public static BatchItemResult ok(int index, Long id, int status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult error(int index, Long id, int status, String error) {
+        return new BatchItemResult(index, id, status, error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchResponse {
+    private final int total;
+    private final int exitosos;
+    private final int fallidos;
+    private final List<BatchItemResult> resultados;
+
+    public BatchResponse(List<BatchItemResult> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.exitosos = (int) resultados.stream().filter(r -> r.getError() == null).count();
+        this.fallidos = total - exitosos;
+    }
+}
@@ -0,0 +1,18 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Página obtenida por cursor (keyset). No incluye totales porque no se ejecuta COUNT;
+ * para pedir la siguiente página se envía nextCursor tal cual se recibió.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,44 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.time.Instant;
+
+import lombok.Getter;
+
+/**
+ * Progreso de un borrado asíncrono de usuario. Lo actualiza un único hilo de trabajo
+ * y lo consultan otros, por eso los campos mutables son volatile.
+ */
+@Getter
+public class DeletionProgress {
+    public enum Estado { EN_CURSO, COMPLETADO, FALLIDO }
+
+    private final String jobId;
+    private final Long userId;
+    private final long totalTareas;
+    private final Instant iniciado = Instant.now();
+    private volatile long tareasEliminadas;
+    private volatile Estado estado = Estado.EN_CURSO;
+    private volatile String error;
+    private volatile Instant finalizado;
+
+    public DeletionProgress(String jobId, Long userId, long totalTareas) {
+        this.jobId = jobId;
+        this.userId = userId;
+        this.totalTareas = totalTareas;
+    }
+
+    public void sumarEliminadas(long cantidad) {
+        this.tareasEliminadas += cantidad; // Solo escribe el hilo de trabajo
+    }
+
+    public void completar() {
+        this.estado = Estado.COMPLETADO;
+        this.finalizado = Instant.now();
+    }
+
+    public void fallar(String error) {
+        this.error = error;
+        this.estado = Estado.FALLIDO;
+        this.finalizado = Instant.now();
+    }
+}
@@ -0,0 +1,20 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.time.Instant;
+
+import com.miapp.gestortareas.model.Estado;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Respuesta del cambio de estado. Se construye sin volver a leer la tarea:
+ * updatedAt es el valor que escribió la sentencia UPDATE.
+ */
+@Data
+@AllArgsConstructor
+public class EstadoTareaResponse {
+    private Long id;
+    private Estado estado;
+    private Instant updatedAt;
+}
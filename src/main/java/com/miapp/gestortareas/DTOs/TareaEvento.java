@@ -0,0 +1,49 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.miapp.gestortareas.model.Estado;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Cambio en una tarea enviado por GET /api/tareas/stream. CREADA y ACTUALIZADA llevan la
+ * tarea completa; ESTADO solo el nuevo estado; ELIMINADA solo el id. IMPORTADAS resume un
+ * bloque de una importación con el número de tareas creadas, para que el cliente recargue la lista.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TareaEvento {
+
+    public enum Tipo { CREADA, ACTUALIZADA, ESTADO, ELIMINADA, IMPORTADAS }
+
+    private Tipo tipo;
+    private Long tareaId;
+    private TareaResponse tarea;
+    private Estado estado;
+    private Instant updatedAt;
+    private Integer cantidad;
+
+    public static TareaEvento creada(TareaResponse tarea) {
+        return new TareaEvento(Tipo.CREADA, tarea.getId(), tarea, null, null, null);
+    }
+
+    public static TareaEvento actualizada(TareaResponse tarea) {
+        return new TareaEvento(Tipo.ACTUALIZADA, tarea.getId(), tarea, null, null, null);
+    }
+
+    public static TareaEvento estado(Long tareaId, Estado estado, Instant updatedAt) {
+        return new TareaEvento(Tipo.ESTADO, tareaId, null, estado, updatedAt, null);
+    }
+
+    public static TareaEvento eliminada(Long tareaId) {
+        return new TareaEvento(Tipo.ELIMINADA, tareaId, null, null, null, null);
+    }
+
+    public static TareaEvento importadas(int cantidad) {
+        return new TareaEvento(Tipo.IMPORTADAS, null, null, null, null, cantidad);
+    }
+}
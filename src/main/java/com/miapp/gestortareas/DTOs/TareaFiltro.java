@@ -0,0 +1,40 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+
+import lombok.Data;
+
+/**
+ * Filtros opcionales de GET /api/tareas. Los rangos son inclusivos y se pueden dejar abiertos;
+ * estado y prioridad admiten varios valores (?estado=PENDIENTE&estado=EN_PROGRESO).
+ */
+@Data
+public class TareaFiltro {
+    private List<Estado> estado;
+    private List<Prioridad> prioridad;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate venceDesde;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate venceHasta;
+
+    private Instant creadaDesde;
+    private Instant creadaHasta;
+
+    private Instant actualizadaDesde;
+    private Instant actualizadaHasta;
+
+    public boolean estaVacio() {
+        return (estado == null || estado.isEmpty()) && (prioridad == null || prioridad.isEmpty())
+                && venceDesde == null && venceHasta == null
+                && creadaDesde == null && creadaHasta == null
+                && actualizadaDesde == null && actualizadaHasta == null;
+    }
+}
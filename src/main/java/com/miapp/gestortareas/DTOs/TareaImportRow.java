@@ -0,0 +1,37 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.time.LocalDate;
+
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de POST /api/tareas/import. A diferencia de CreateTareaRequest admite el estado y
+ * fechas de vencimiento pasadas, para poder volver a importar una exportación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TareaImportRow {
+    @NotBlank(message = "El título no puede estar vacío")
+    @Size(max = 255, message = "El título no puede superar 255 caracteres")
+    private String titulo;
+
+    @Size(max = 255, message = "La descripción no puede superar 255 caracteres")
+    private String descripcion;
+
+    // Opcional: PENDIENTE si no se indica
+    private Estado estado;
+
+    @NotNull(message = "La prioridad no puede ser nula")
+    private Prioridad prioridad;
+
+    private LocalDate fechaVencimiento;
+}
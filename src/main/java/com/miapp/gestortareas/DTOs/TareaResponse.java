@@ -6,11 +6,13 @@ import java.time.LocalDate;
 import com.miapp.gestortareas.model.Estado;
 import com.miapp.gestortareas.model.Prioridad;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor // Usado por las proyecciones JPQL de TareaRepository
 public class TareaResponse {
     private Long id;
     private String titulo;
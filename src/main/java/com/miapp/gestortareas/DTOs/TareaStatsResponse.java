@@ -0,0 +1,19 @@
+package com.miapp.gestortareas.DTOs;
+
+import java.util.Map;
+
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TareaStatsResponse {
+    private long total;
+    private Map<Estado, Long> porEstado;
+    private Map<Prioridad, Long> porPrioridad;
+    // Sin completar y con fecha de vencimiento anterior a hoy
+    private long vencidas;
+}
@@ -1,10 +1,12 @@
 package com.miapp.gestortareas.DTOs;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor // Usado por las proyecciones JPQL de UserRepository
 public class UserResponse {
     private Long id;
     private String nombre;
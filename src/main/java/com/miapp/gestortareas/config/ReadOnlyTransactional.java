@@ -0,0 +1,22 @@
+package com.miapp.gestortareas.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transacción de solo lectura. Los servicios usan jakarta.transaction.Transactional, que no
+ * tiene readOnly; esta anotación evita mezclar las dos en un mismo fichero. Hibernate no
+ * comprueba cambios al terminar y, con datasource.routing.enabled=true, la consulta puede
+ * ir a la réplica (ver ReplicaRoutingDataSource).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
@@ -0,0 +1,74 @@
+package com.miapp.gestortareas.config;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Mide el retraso de la réplica con un latido: escribe la hora actual en la primaria y lee en
+ * la réplica el último valor que le ha llegado. Si no se puede leer o el retraso supera el
+ * máximo, la réplica se da por no disponible y las lecturas vuelven a la primaria.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primaria;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    // Hora (de la primaria) hasta la que la réplica tiene aplicados todos los cambios
+    private volatile Instant replicadaHasta = Instant.EPOCH;
+    private volatile boolean disponible;
+
+    public ReplicaLagMonitor(DataSource primaria, DataSource replica, Duration maxLag) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.primaria.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, latido TIMESTAMP(6) NOT NULL)");
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-ms:1000}")
+    public void vigilar() {
+        Timestamp ahora = Timestamp.from(Instant.now());
+        try {
+            if (primaria.update("UPDATE replica_heartbeat SET latido = ? WHERE id = 1", ahora) == 0) {
+                primaria.update("INSERT INTO replica_heartbeat (id, latido) VALUES (1, ?)", ahora);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo escribir el latido de réplica en la primaria: {}", e.getMessage());
+        }
+
+        boolean estabaDisponible = disponible;
+        try {
+            Timestamp latido = replica.queryForObject("SELECT latido FROM replica_heartbeat WHERE id = 1", Timestamp.class);
+            replicadaHasta = latido.toInstant();
+            disponible = retraso().compareTo(maxLag) <= 0;
+        } catch (DataAccessException e) {
+            disponible = false;
+        }
+        if (estabaDisponible != disponible) {
+            logger.warn(disponible ? "Réplica disponible: retraso {} ms" : "Réplica no disponible (retraso {} ms): lecturas a la primaria",
+                    retraso().toMillis());
+        }
+    }
+
+    public boolean disponible() {
+        return disponible;
+    }
+
+    public Instant replicadaHasta() {
+        return replicadaHasta;
+    }
+
+    public Duration retraso() {
+        return Duration.between(replicadaHasta, Instant.now());
+    }
+}
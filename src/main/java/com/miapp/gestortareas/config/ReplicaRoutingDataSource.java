@@ -0,0 +1,105 @@
+package com.miapp.gestortareas.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miapp.gestortareas.security.AuthenticatedUser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envía las transacciones de solo lectura a la réplica y todo lo demás a la primaria.
+ * Una lectura vuelve a la primaria si la réplica no está disponible o si el usuario ha
+ * escrito algo que la réplica todavía no tiene (lee sus propias escrituras).
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: así la conexión se pide al
+ * ejecutar la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIA, REPLICA }
+
+    private final ReplicaLagMonitor monitor;
+    // Hora de la última escritura confirmada de cada usuario; pasado maxLag la réplica ya la tiene
+    private final Cache<Long, Instant> ultimaEscritura;
+    private final Counter escrituras;
+    private final Counter lecturasReplica;
+    private final Counter lecturasPropias;
+    private final Counter lecturasSinReplica;
+
+    public ReplicaRoutingDataSource(DataSource primaria, DataSource replica, ReplicaLagMonitor monitor,
+                                    Duration maxLag, MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.ultimaEscritura = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(maxLag)
+                .build();
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        escrituras = contador(meterRegistry, "primaria", "escritura");
+        lecturasReplica = contador(meterRegistry, "replica", "lectura");
+        lecturasPropias = contador(meterRegistry, "primaria", "lectura-propia");
+        lecturasSinReplica = contador(meterRegistry, "primaria", "replica-no-disponible");
+    }
+
+    private static Counter contador(MeterRegistry registry, String destino, String motivo) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Conexiones entregadas por el enrutado primaria/réplica")
+                .tag("destino", destino)
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = usuarioActual();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            escrituras.increment();
+            anotarEscritura(userId);
+            return Destino.PRIMARIA;
+        }
+        if (!monitor.disponible()) {
+            lecturasSinReplica.increment();
+            return Destino.PRIMARIA;
+        }
+        Instant escrita = userId == null ? null : ultimaEscritura.getIfPresent(userId);
+        if (escrita != null && !escrita.isBefore(monitor.replicadaHasta())) {
+            lecturasPropias.increment();
+            return Destino.PRIMARIA;
+        }
+        lecturasReplica.increment();
+        return Destino.REPLICA;
+    }
+
+    // Se anota tras el commit: el latido que la réplica reciba después ya incluye este cambio
+    private void anotarEscritura(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ultimaEscritura.put(userId, Instant.now());
+            }
+        });
+    }
+
+    private static Long usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.miapp.gestortareas.config;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Caché de segundo nivel y de consultas de Hibernate, desactivada por defecto. Con
+ * cache.second-level.enabled=true las regiones viven en memoria del proceso (JCache sobre
+ * Caffeine) con un máximo de entradas cada una. Como cada nodo tiene su propia copia, en un
+ * despliegue con varias instancias los cambios de otro nodo solo se ven al caducar (ttl-seconds).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Regiones declaradas en UserModel y TareaModel, más las dos de la caché de consultas
+    private static final String USUARIOS = "usuarios";
+    private static final String USUARIOS_EMAIL = "usuarios-email";
+    private static final String TAREAS = "tareas";
+    private static final String CONSULTAS = "default-query-results-region";
+    private static final String MARCAS_TABLAS = "default-update-timestamps-region";
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            @Value("${cache.second-level.enabled:false}") boolean enabled,
+            @Value("${cache.second-level.usuarios.max-entries:10000}") long maxUsuarios,
+            @Value("${cache.second-level.tareas.max-entries:100000}") long maxTareas,
+            @Value("${cache.second-level.query.max-entries:10000}") long maxConsultas,
+            @Value("${cache.second-level.ttl-seconds:300}") long ttlSeconds) {
+        // El interruptor (use_second_level_cache y use_query_cache) está en application.properties;
+        // aquí solo se configuran las regiones
+        return properties -> {
+            if (!enabled) {
+                return;
+            }
+            CacheManager cacheManager = crearCacheManager(Map.of(
+                    USUARIOS, maxUsuarios,
+                    USUARIOS_EMAIL, maxUsuarios,
+                    TAREAS, maxTareas,
+                    CONSULTAS, maxConsultas), OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Una región sin configurar sería ilimitada: mejor fallar al arrancar
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Hibernate cierra el CacheManager al cerrarse; el siguiente contexto obtiene uno nuevo
+    private static CacheManager crearCacheManager(Map<String, Long> maximos, OptionalLong ttlNanos) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        maximos.forEach((region, maximo) -> cacheManager.createCache(region, configuracion(OptionalLong.of(maximo), ttlNanos)));
+        // Una entrada por tabla; no debe expulsarse nunca o la caché de consultas devolvería datos obsoletos
+        cacheManager.createCache(MARCAS_TABLAS, configuracion(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(OptionalLong maximo, OptionalLong ttlNanos) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        // Por referencia: Hibernate ya guarda copias desensambladas, no hace falta serializarlas otra vez
+        configuracion.setStoreByValue(false);
+        configuracion.setStatisticsEnabled(true);
+        configuracion.setMaximumSize(maximo);
+        configuracion.setExpireAfterWrite(ttlNanos);
+        return configuracion;
+    }
+}
@@ -0,0 +1,60 @@
+package com.miapp.gestortareas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Ajustes que solo se aplican con spring.threads.virtual.enabled=true sobre Java 21.
+ * Spring Boot ya sirve entonces las peticiones de Tomcat, los @Async y las tareas
+ * programadas en hilos virtuales; bcrypt sigue en su pool acotado de PasswordHashingService.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    /**
+     * Los drivers JDBC (H2, MySQL Connector/J 8) esperan E/S dentro de bloques synchronized,
+     * lo que deja el hilo virtual fijado (pinned) a su hilo portador. Como solo quien tiene
+     * una conexión puede estar ahí, un pool con tantas conexiones como portadores puede
+     * dejarlos todos fijados. Por defecto solo se avisa; reducir el pool por debajo del número
+     * de portadores (threads.virtual.jdbc-pool-cap) es opcional, porque en máquinas con pocos
+     * núcleos deja muy pocas conexiones.
+     */
+    @Bean
+    static BeanPostProcessor jdbcPinningGuard(@Value("${threads.virtual.jdbc-pool-guard:true}") boolean enabled,
+                                              @Value("${threads.virtual.jdbc-pool-cap:false}") boolean limitar) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof HikariDataSource dataSource) {
+                    int portadores = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                            Runtime.getRuntime().availableProcessors());
+                    int maximo = Math.max(1, portadores - 1);
+                    if (dataSource.getMaximumPoolSize() <= maximo) {
+                        return bean;
+                    }
+                    if (limitar) {
+                        logger.warn("Hilos virtuales: pool JDBC reducido de {} a {} conexiones para no fijar todos los "
+                                + "hilos portadores ({}).", dataSource.getMaximumPoolSize(), maximo, portadores);
+                        dataSource.setMaximumPoolSize(maximo);
+                    } else {
+                        logger.warn("Hilos virtuales: el pool JDBC ({} conexiones) puede fijar todos los hilos portadores "
+                                + "({}) si el driver espera dentro de synchronized. Sube jdk.virtualThreadScheduler.parallelism "
+                                + "o activa threads.virtual.jdbc-pool-cap para limitarlo a {}.",
+                                dataSource.getMaximumPoolSize(), portadores, maximo);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,9 +1,20 @@
 package com.miapp.gestortareas.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,19 +25,34 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.miapp.gestortareas.DTOs.BatchEstadoRequest;
+import com.miapp.gestortareas.DTOs.BatchResponse;
 import com.miapp.gestortareas.DTOs.CreateTareaRequest;
+import com.miapp.gestortareas.DTOs.CursorPageResponse;
+import com.miapp.gestortareas.DTOs.EstadoTareaResponse;
+import com.miapp.gestortareas.DTOs.TareaFiltro;
 import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.DTOs.TareaStatsResponse;
 import com.miapp.gestortareas.DTOs.UpdateTareaRequest;
 import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.security.AuthenticatedUser;
+import com.miapp.gestortareas.service.TareaETags;
+import com.miapp.gestortareas.service.TareaEventBroadcaster;
 import com.miapp.gestortareas.service.TareaService;
+import com.miapp.gestortareas.service.TareaTransferService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
@@ -36,26 +62,134 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TareaController {
 
+	// El navegador puede guardar las respuestas, pero debe revalidarlas con If-None-Match antes de usarlas
+	private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+	private static final String NDJSON = "application/x-ndjson";
+
 	private final TareaService tareaService;
+	private final TareaEventBroadcaster tareaEventBroadcaster;
+	private final TareaTransferService tareaTransferService;
 
-    private String getCurrentUserEmail() {
-        return SecurityContextHolder.getContext().getAuthentication().getName();
+    private Long getCurrentUserId() {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return principal.id();
+    }
+
+    private static <T> ResponseEntity<T> noModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR).eTag(etag).build();
     }
 
 	 // ---------- LISTAR TAREAS ----------
     @GetMapping
-    public ResponseEntity<Page<TareaResponse>> listarTareas(@PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
-        String email = getCurrentUserEmail();
-        Page<TareaResponse> tareas = tareaService.listar(email, pageable);
-        return ResponseEntity.ok(tareas);
+    @Operation(summary = "Lista las tareas del usuario; admite filtros por estado, prioridad y rangos de fechas, e If-None-Match",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<Page<TareaResponse>> listarTareas(
+            @ParameterObject TareaFiltro filtro,
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long userId = getCurrentUserId();
+        // Se lee antes que la página: si una escritura se cuela entre ambas lecturas, el ETag
+        // queda por detrás de los datos y la siguiente petición recibe un 200, nunca un 304 obsoleto
+        String etag = tareaService.etagLista(userId);
+        if (TareaETags.coincideDebil(ifNoneMatch, etag)) {
+            return noModificado(etag);
+        }
+        Page<TareaResponse> tareas = tareaService.listar(userId, filtro, pageable);
+        return ResponseEntity.ok().cacheControl(REVALIDAR).eTag(etag).body(tareas);
+    }
+
+    // ---------- LISTAR TAREAS POR CURSOR (SCROLL INFINITO) ----------
+    @GetMapping("/cursor")
+    @Operation(summary = "Lista las tareas por cursor (keyset), sin COUNT ni OFFSET", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<CursorPageResponse<TareaResponse>> listarTareasPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(tareaService.listarPorCursor(userId, cursor, size));
+    }
+
+    // ---------- EVENTOS EN TIEMPO REAL (SSE) ----------
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Flujo Server-Sent Events con los cambios en las tareas del usuario; admite Last-Event-ID para reanudar",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    public SseEmitter streamTareas(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long userId = getCurrentUserId();
+        return tareaEventBroadcaster.suscribir(userId, lastEventId);
+    }
+
+    // ---------- ESTADÍSTICAS ----------
+    @GetMapping("/stats")
+    @Operation(summary = "Número de tareas del usuario por estado y prioridad, y cuántas están vencidas", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<TareaStatsResponse> estadisticas() {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(tareaService.estadisticas(userId));
+    }
+
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Reconstruye desde cero los contadores de todos los usuarios; devuelve cuántos estaban desajustados", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<Map<String, Integer>> reconstruirEstadisticas() {
+        return ResponseEntity.ok(Map.of("corregidos", tareaService.reconstruirEstadisticas()));
+    }
+
+    // ---------- BUSCAR TAREAS ----------
+    @GetMapping("/search")
+    @Operation(summary = "Busca en el título y la descripción de las tareas; resultados por relevancia", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<List<TareaResponse>> buscarTareas(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(tareaService.buscar(userId, q, size));
+    }
+
+    // ---------- EXPORTAR / IMPORTAR ----------
+    @GetMapping("/export")
+    @Operation(summary = "Descarga todas las tareas del usuario en CSV o NDJSON, generadas a medida que se leen", security = @SecurityRequirement(name = "bearerAuth"))
+    public void exportarTareas(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        Long userId = getCurrentUserId();
+        TareaTransferService.Formato formato = TareaTransferService.formato(format);
+        boolean csv = formato == TareaTransferService.Formato.CSV;
+        response.setContentType(csv ? "text/csv" : NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(csv ? "tareas.csv" : "tareas.ndjson").build().toString());
+        tareaTransferService.exportar(userId, formato, response.getOutputStream());
+    }
+
+    @PostMapping(path = "/import", consumes = {"text/csv", NDJSON}, produces = NDJSON)
+    @Operation(summary = "Importa tareas desde CSV (con cabecera) o NDJSON; responde en NDJSON los errores de cada fila, el progreso y un resumen final",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación procesada; las filas con errores se informan en el cuerpo"),
+        @ApiResponse(responseCode = "400", description = "Cabecera CSV ausente o sin las columnas titulo y prioridad")
+    })
+    public void importarTareas(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long userId = getCurrentUserId();
+        TareaTransferService.Formato formato = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(NDJSON)) ? TareaTransferService.Formato.NDJSON : TareaTransferService.Formato.CSV;
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        tareaTransferService.importar(userId, formato, request.getInputStream(), response.getOutputStream());
     }
 
     // ---------- OBTENER UNA TAREA POR ID ----------
     @GetMapping("/{id}")
-    public ResponseEntity<TareaResponse> obtenerTareaPorId(@PathVariable Long id) {
-        String email = getCurrentUserEmail();
-        TareaResponse tarea = tareaService.obtenerPorId(email, id);
-        return ResponseEntity.ok(tarea);
+    @Operation(summary = "Obtiene una tarea; con If-None-Match responde 304 si no ha cambiado", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<TareaResponse> obtenerTareaPorId(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long userId = getCurrentUserId();
+        if (ifNoneMatch != null) {
+            // Solo se lee updatedAt: el 304 no necesita la tarea completa
+            String etag = tareaService.etagTarea(userId, id);
+            if (TareaETags.coincideDebil(ifNoneMatch, etag)) {
+                return noModificado(etag);
+            }
+        }
+        TareaResponse tarea = tareaService.obtenerPorId(userId, id);
+        return ResponseEntity.ok().cacheControl(REVALIDAR)
+                .eTag(TareaETags.deTarea(tarea.getId(), tarea.getUpdatedAt()))
+                .body(tarea);
     }
 
     // ---------- CREAR TAREA ----------
@@ -67,37 +201,81 @@ public class TareaController {
         @ApiResponse(responseCode = "403", description = "Acceso denegado si el token no es válido")
     })
     public ResponseEntity<TareaResponse> crearTarea(@Valid @RequestBody CreateTareaRequest request) {
-        String email = getCurrentUserEmail();
-        TareaResponse tareaCreada = tareaService.crear(email, request);
+        Long userId = getCurrentUserId();
+        TareaResponse tareaCreada = tareaService.crear(userId, request);
         return new ResponseEntity<>(tareaCreada, HttpStatus.CREATED);
     }
 
+    // ---------- OPERACIONES POR LOTES ----------
+    @PostMapping("/batch")
+    @Operation(summary = "Crea varias tareas en una sola petición; informa el resultado de cada elemento", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<BatchResponse> crearTareasEnLote(@RequestBody List<CreateTareaRequest> requests) {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(tareaService.crearLote(userId, requests));
+    }
+
+    @PatchMapping("/batch/estado")
+    @Operation(summary = "Cambia el estado de varias tareas; informa el resultado de cada elemento", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<BatchResponse> actualizarEstadoEnLote(@RequestBody List<BatchEstadoRequest> requests) {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(tareaService.actualizarEstadoLote(userId, requests));
+    }
+
+    @PostMapping("/batch/delete")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Elimina varias tareas; informa el resultado de cada elemento", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<BatchResponse> eliminarTareasEnLote(@RequestBody List<Long> ids) {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(tareaService.eliminarLote(userId, ids));
+    }
+
     // ---------- ACTUALIZAR ESTADO DE TAREA ----------
     @PatchMapping("/{id}/estado")
-    public ResponseEntity<TareaResponse> actualizarEstadoTarea(
+    @Operation(summary = "Cambia el estado de una tarea en una sola sentencia; con expectedUpdatedAt o If-Match aplica concurrencia optimista",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado actualizado"),
+        @ApiResponse(responseCode = "404", description = "La tarea no existe o no pertenece al usuario"),
+        @ApiResponse(responseCode = "409", description = "La tarea cambió desde expectedUpdatedAt"),
+        @ApiResponse(responseCode = "412", description = "La tarea ya no tiene el ETag indicado en If-Match")
+    })
+    public ResponseEntity<EstadoTareaResponse> actualizarEstadoTarea(
             @PathVariable Long id,
-            @NotNull @RequestBody Estado nuevoEstado) {
-        String email = getCurrentUserEmail();
-        TareaResponse tareaActualizada = tareaService.actualizarEstado(email, id, nuevoEstado);
-        return ResponseEntity.ok(tareaActualizada);
+            @NotNull @RequestBody Estado nuevoEstado,
+            @RequestParam(required = false) Instant expectedUpdatedAt,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long userId = getCurrentUserId();
+        EstadoTareaResponse tareaActualizada = tareaService.actualizarEstado(userId, id, nuevoEstado, expectedUpdatedAt, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(TareaETags.deTarea(id, tareaActualizada.getUpdatedAt()))
+                .body(tareaActualizada);
     }
 
     // ---------- ACTUALIZACIÓN COMPLETA DE TAREA ----------
     @PutMapping("/{id}")
+    @Operation(summary = "Reemplaza los datos de una tarea; con If-Match solo se aplica si la tarea no cambió", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tarea actualizada"),
+        @ApiResponse(responseCode = "404", description = "La tarea no existe o no pertenece al usuario"),
+        @ApiResponse(responseCode = "412", description = "La tarea ya no tiene el ETag indicado en If-Match")
+    })
     public ResponseEntity<TareaResponse> actualizarTarea(
             @PathVariable Long id,
-            @Valid @RequestBody UpdateTareaRequest request) {
-        String email = getCurrentUserEmail();
-        TareaResponse tareaActualizada = tareaService.actualizar(email, id, request);
-        return ResponseEntity.ok(tareaActualizada);
+            @Valid @RequestBody UpdateTareaRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long userId = getCurrentUserId();
+        TareaResponse tareaActualizada = tareaService.actualizar(userId, id, request, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(TareaETags.deTarea(id, tareaActualizada.getUpdatedAt()))
+                .body(tareaActualizada);
     }
 
     // ---------- ELIMINAR TAREA ----------
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<Void> eliminarTarea(@PathVariable Long id) {
-        String email = getCurrentUserEmail();
-        tareaService.eliminar(email, id);
+        Long userId = getCurrentUserId();
+        tareaService.eliminar(userId, id);
         return ResponseEntity.noContent().build(); // HTTP 204 No Content es la respuesta estándar para un DELETE exitoso.
     }
 
@@ -1,8 +1,14 @@
 package com.miapp.gestortareas.controller;
 
-import java.util.List;
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,12 +20,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.miapp.gestortareas.DTOs.AdminCreateUserRequest;
 import com.miapp.gestortareas.DTOs.ChangePasswordRequest;
+import com.miapp.gestortareas.DTOs.DeletionProgress;
 import com.miapp.gestortareas.DTOs.AdminUpdateUserRequest;
 import com.miapp.gestortareas.DTOs.UserResponse;
+import com.miapp.gestortareas.security.PasswordHashingService;
+import com.miapp.gestortareas.security.TokenVersionCache;
 import com.miapp.gestortareas.service.UserService;
 
 import jakarta.validation.Valid;
@@ -31,14 +42,29 @@ import lombok.RequiredArgsConstructor;
 public class UserController {
 
     private final UserService userService;
+    private final TokenVersionCache tokenVersionCache;
+    private final PasswordHashingService passwordHasher;
 
     @GetMapping
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.findAll();
+    public ResponseEntity<Page<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String email,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        Page<UserResponse> users = userService.findAll(role, email, pageable);
         return ResponseEntity.ok(users);
     }
 
+    // Exportación completa en NDJSON; se escribe en streaming con memoria constante
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<UserResponse> createUser(@Valid @RequestBody AdminCreateUserRequest request) {
@@ -55,11 +81,25 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<DeletionProgress> deleteUser(@PathVariable Long id,
+                                                       @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            // Cuentas muy grandes: se borra por bloques en segundo plano (HTTP 202 + progreso)
+            DeletionProgress progress = userService.deleteUserAsync(id);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/users/deletions/" + progress.getJobId()))
+                    .body(progress);
+        }
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<DeletionProgress> getDeletionProgress(@PathVariable String jobId) {
+        return ResponseEntity.ok(userService.deletionProgress(jobId));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody AdminUpdateUserRequest request) {
@@ -67,6 +107,27 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    @GetMapping("/token-cache/stats")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Long>> getTokenCacheStats() {
+        return ResponseEntity.ok(Map.of(
+                "hits", tokenVersionCache.hitCount(),
+                "misses", tokenVersionCache.missCount(),
+                "size", tokenVersionCache.size()));
+    }
+
+    @GetMapping("/password-hashing/stats")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Number>> getPasswordHashingStats() {
+        return ResponseEntity.ok(Map.of(
+                "operaciones", passwordHasher.getOperaciones(),
+                "latenciaMediaMs", passwordHasher.getLatenciaMediaMs(),
+                "latenciaMaxMs", passwordHasher.getLatenciaMaxMs(),
+                "rechazadas", passwordHasher.getRechazadas(),
+                "enCola", passwordHasher.getEnCola(),
+                "activos", passwordHasher.getActivos()));
+    }
+
     @PatchMapping("/me/password")
     public ResponseEntity<Void> changeMyPassword(@Valid @RequestBody ChangePasswordRequest request) {
         String currentUserEmail = getCurrentUserEmail();
@@ -0,0 +1,58 @@
+package com.miapp.gestortareas.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Publica las estadísticas globales de Hibernate (hibernate.generate_statistics) como métricas.
+ * Solo con metrics.hibernate-statistics.enabled=true (perfil metrics).
+ */
+@Component
+@ConditionalOnProperty(name = "metrics.hibernate-statistics.enabled", havingValue = "true")
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        contador(registry, "hibernate.statements", "Sentencias JDBC preparadas", Statistics::getPrepareStatementCount);
+        contador(registry, "hibernate.query.executions", "Consultas HQL/SQL ejecutadas", Statistics::getQueryExecutionCount);
+        contador(registry, "hibernate.entities.loaded", "Entidades cargadas", Statistics::getEntityLoadCount);
+        contador(registry, "hibernate.entities.fetched", "Entidades obtenidas con un fetch adicional (posible N+1)", Statistics::getEntityFetchCount);
+        contador(registry, "hibernate.collections.fetched", "Colecciones obtenidas con un fetch adicional (posible N+1)", Statistics::getCollectionFetchCount);
+        contador(registry, "hibernate.entities.inserted", "Entidades insertadas", Statistics::getEntityInsertCount);
+        contador(registry, "hibernate.entities.updated", "Entidades actualizadas", Statistics::getEntityUpdateCount);
+        contador(registry, "hibernate.entities.deleted", "Entidades eliminadas", Statistics::getEntityDeleteCount);
+        contador(registry, "hibernate.transactions", "Transacciones completadas", Statistics::getTransactionCount);
+        // Caché de segundo nivel (cache.second-level.enabled); a cero si está desactivada
+        contador(registry, "hibernate.cache.second-level.hits", "Entidades servidas desde la caché de segundo nivel", Statistics::getSecondLevelCacheHitCount);
+        contador(registry, "hibernate.cache.second-level.misses", "Entidades buscadas en la caché de segundo nivel sin encontrarlas", Statistics::getSecondLevelCacheMissCount);
+        contador(registry, "hibernate.cache.second-level.puts", "Entidades guardadas en la caché de segundo nivel", Statistics::getSecondLevelCachePutCount);
+        contador(registry, "hibernate.cache.natural-id.hits", "Ids naturales (email) resueltos desde la caché", Statistics::getNaturalIdCacheHitCount);
+        contador(registry, "hibernate.cache.natural-id.misses", "Ids naturales (email) no encontrados en la caché", Statistics::getNaturalIdCacheMissCount);
+        contador(registry, "hibernate.cache.query.hits", "Consultas servidas desde la caché de consultas", Statistics::getQueryCacheHitCount);
+        contador(registry, "hibernate.cache.query.misses", "Consultas cacheables que fueron a la base de datos", Statistics::getQueryCacheMissCount);
+        Gauge.builder("hibernate.query.execution.max.ms", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Tiempo máximo de una consulta en milisegundos")
+                .register(registry);
+    }
+
+    private void contador(MeterRegistry registry, String nombre, String descripcion,
+                          java.util.function.ToDoubleFunction<Statistics> valor) {
+        FunctionCounter.builder(nombre, statistics, valor)
+                .description(descripcion)
+                .register(registry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.miapp.gestortareas.metrics;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registra cuántas sentencias SQL ejecuta cada petición (métrica hibernate.statements.per.request,
+ * etiquetada por endpoint) y avisa en el log cuando se supera el umbral: suele indicar un N+1.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${metrics.sql.statements-per-request.warn-threshold:20}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int sentencias = SqlStatementCounter.finalizar();
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = patron != null ? patron.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("hibernate.statements.per.request")
+                    .description("Sentencias SQL ejecutadas por petición")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(sentencias);
+
+            if (sentencias > warnThreshold) {
+                logger.warn("Posible N+1: {} {} ejecutó {} sentencias SQL", request.getMethod(), uri, sentencias);
+            }
+        }
+    }
+}
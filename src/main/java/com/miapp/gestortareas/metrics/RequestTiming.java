@@ -0,0 +1,96 @@
+package com.miapp.gestortareas.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tiempos por fase de la petición en curso (auth, db, ser...). Solo existe mientras
+ * RequestTimingFilter está activo; si no, los métodos de registro no hacen nada,
+ * así que los puntos de medida pueden quedarse en el código sin coste apreciable.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> ACTUAL = new ThreadLocal<>();
+
+    private final long inicio = System.nanoTime();
+    private final Map<String, Long> fases = new LinkedHashMap<>();
+    private int sentenciasSql;
+    private long nanosSql;
+
+    private RequestTiming() {
+    }
+
+    static RequestTiming iniciar() {
+        RequestTiming timing = new RequestTiming();
+        ACTUAL.set(timing);
+        return timing;
+    }
+
+    static void finalizar() {
+        ACTUAL.remove();
+    }
+
+    static RequestTiming actual() {
+        return ACTUAL.get();
+    }
+
+    public static boolean activo() {
+        return ACTUAL.get() != null;
+    }
+
+    public static void registrarFase(String fase, long nanos) {
+        RequestTiming timing = ACTUAL.get();
+        if (timing != null) {
+            timing.fases.merge(fase, nanos, Long::sum);
+        }
+    }
+
+    public static void registrarSql(long nanos) {
+        RequestTiming timing = ACTUAL.get();
+        if (timing != null) {
+            timing.sentenciasSql++;
+            timing.nanosSql += nanos;
+        }
+    }
+
+    long transcurridoNanos() {
+        return System.nanoTime() - inicio;
+    }
+
+    int getSentenciasSql() {
+        return sentenciasSql;
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing con las fases medidas hasta ahora.
+     * "app" es el resto del tiempo (controlador, servicios y código no medido).
+     */
+    String serverTiming() {
+        long total = transcurridoNanos();
+        long medido = nanosSql;
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> fase : fases.entrySet()) {
+            sb.append(fase.getKey()).append(";dur=").append(ms(fase.getValue())).append(", ");
+            medido += fase.getValue();
+        }
+        sb.append("db;dur=").append(ms(nanosSql)).append(";desc=\"").append(sentenciasSql).append(" sql\", ");
+        sb.append("app;dur=").append(ms(Math.max(0, total - medido))).append(", ");
+        sb.append("total;dur=").append(ms(total));
+        return sb.toString();
+    }
+
+    /** Resumen para el log de peticiones lentas. */
+    Map<String, Object> resumen() {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("totalMs", ms(transcurridoNanos()));
+        fases.forEach((fase, nanos) -> resumen.put(fase + "Ms", ms(nanos)));
+        resumen.put("dbMs", ms(nanosSql));
+        resumen.put("sqlStatements", sentenciasSql);
+        return resumen;
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,19 @@
+package com.miapp.gestortareas.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Sustituye el conversor JSON de Spring Boot solo cuando el modo de diagnóstico está activo
+@Configuration
+@ConditionalOnProperty(name = "metrics.request-timing.enabled", havingValue = "true")
+public class RequestTimingConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper);
+    }
+}
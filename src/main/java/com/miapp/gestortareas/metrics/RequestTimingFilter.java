@@ -0,0 +1,129 @@
+package com.miapp.gestortareas.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Modo de diagnóstico (metrics.request-timing.enabled=true): mide cada petición por fases
+ * (auth, db, ser, app) y las devuelve en la cabecera Server-Timing, visible en las
+ * herramientas de desarrollo del navegador. Las peticiones que superan el umbral se
+ * escriben como JSON en el logger "slow-requests", que usa un appender asíncrono.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "metrics.request-timing.enabled", havingValue = "true")
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private static final Logger slowLogger = LoggerFactory.getLogger("slow-requests");
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final ObjectMapper objectMapper;
+    private final long slowThresholdNanos;
+
+    public RequestTimingFilter(ObjectMapper objectMapper,
+                               @Value("${metrics.request-timing.slow-threshold-ms:500}") long slowThresholdMs) {
+        this.objectMapper = objectMapper;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.iniciar();
+        try {
+            filterChain.doFilter(request, new ServerTimingResponse(response, timing));
+        } finally {
+            RequestTiming.finalizar();
+            if (timing.transcurridoNanos() > slowThresholdNanos) {
+                registrarPeticionLenta(request, response, timing);
+            }
+        }
+    }
+
+    private void registrarPeticionLenta(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map<String, Object> entrada = new LinkedHashMap<>();
+        entrada.put("method", request.getMethod());
+        entrada.put("uri", patron != null ? patron.toString() : request.getRequestURI());
+        entrada.put("status", response.getStatus());
+        entrada.putAll(timing.resumen());
+        try {
+            slowLogger.info(objectMapper.writeValueAsString(entrada));
+        } catch (JsonProcessingException e) {
+            slowLogger.info(entrada.toString());
+        }
+    }
+
+    /**
+     * Añade Server-Timing justo antes de que se empiece a escribir el cuerpo, que es
+     * el último momento en que aún se pueden enviar cabeceras.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestTiming timing;
+        private boolean cabeceraEscrita;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        private void escribirCabecera() {
+            if (!cabeceraEscrita && !isCommitted()) {
+                cabeceraEscrita = true;
+                setHeader(SERVER_TIMING_HEADER, timing.serverTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escribirCabecera();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escribirCabecera();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escribirCabecera();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escribirCabecera();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escribirCabecera();
+            super.sendError(sc);
+        }
+    }
+}
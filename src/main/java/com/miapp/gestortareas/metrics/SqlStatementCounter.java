@@ -0,0 +1,33 @@
+package com.miapp.gestortareas.metrics;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate ejecuta en el hilo actual. Lo alimenta
+ * SqlTimingSessionListener, la misma fuente que la fase "db" de Server-Timing, así que
+ * ambos cuentan igual: una por sentencia ejecutada y una por lote JDBC. QueryCountFilter
+ * lo inicia y lo lee en cada petición.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> CONTADOR = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    static void registrar() {
+        int[] contador = CONTADOR.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+    }
+
+    public static void iniciar() {
+        CONTADOR.set(new int[1]);
+    }
+
+    /** Devuelve el número de sentencias desde iniciar() y deja de contar. */
+    public static int finalizar() {
+        int[] contador = CONTADOR.get();
+        CONTADOR.remove();
+        return contador == null ? 0 : contador[0];
+    }
+}
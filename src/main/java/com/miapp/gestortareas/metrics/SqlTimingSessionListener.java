@@ -0,0 +1,36 @@
+package com.miapp.gestortareas.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Única fuente de la contabilidad SQL por petición: cada ejecución JDBC de Hibernate (sentencia
+ * o lote) se cuenta en SqlStatementCounter y su duración se suma a la fase "db" de la petición
+ * en curso. Hibernate crea una instancia por sesión (hibernate.session.events.auto).
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long inicioSentencia;
+    private long inicioLote;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioSentencia = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.registrar();
+        RequestTiming.registrarSql(System.nanoTime() - inicioSentencia);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioLote = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.registrar();
+        RequestTiming.registrarSql(System.nanoTime() - inicioLote);
+    }
+}
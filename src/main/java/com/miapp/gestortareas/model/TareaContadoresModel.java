@@ -0,0 +1,69 @@
+package com.miapp.gestortareas.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Número de tareas de cada usuario por estado y por prioridad, mantenido en la misma
+ * transacción que cada cambio en tareas. Una fila por usuario: TareaStatsService la
+ * bloquea al empezar cada escritura, lo que serializa los cambios de un mismo usuario.
+ * La revisión aumenta en cada escritura y sirve de ETag para los listados del usuario.
+ */
+@Entity
+@Table(name = "tarea_contadores")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TareaContadoresModel {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long pendientes;
+    private long enProgreso;
+    private long completadas;
+
+    private long prioridadBaja;
+    private long prioridadMedia;
+    private long prioridadAlta;
+
+    private long revision;
+
+    public void sumar(Estado estado, Prioridad prioridad, long delta) {
+        sumarEstado(estado, delta);
+        sumarPrioridad(prioridad, delta);
+    }
+
+    public void sumarEstado(Estado estado, long delta) {
+        if (estado == null) {
+            return;
+        }
+        switch (estado) {
+            case PENDIENTE -> pendientes += delta;
+            case EN_PROGRESO -> enProgreso += delta;
+            case COMPLETADA -> completadas += delta;
+        }
+    }
+
+    public void sumarPrioridad(Prioridad prioridad, long delta) {
+        if (prioridad == null) {
+            return;
+        }
+        switch (prioridad) {
+            case BAJA -> prioridadBaja += delta;
+            case MEDIA -> prioridadMedia += delta;
+            case ALTA -> prioridadAlta += delta;
+        }
+    }
+
+    public long total() {
+        return pendientes + enProgreso + completadas;
+    }
+}
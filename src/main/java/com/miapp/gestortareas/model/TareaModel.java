@@ -3,32 +3,59 @@ package com.miapp.gestortareas.model;
 import java.time.Instant;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
-@Table(name = "tareas")
+@Table(name = "tareas", indexes = {
+    // Soporta la paginación por cursor de cada usuario ordenada por (createdAt, id)
+    @Index(name = "idx_tareas_user_created_id", columnList = "user_id, created_at, id"),
+    // Filtros de GET /api/tareas: estado, estado + prioridad y cualquiera de ellos con rango de vencimiento
+    @Index(name = "idx_tareas_user_estado_prioridad_vence", columnList = "user_id, estado, prioridad, fecha_vencimiento"),
+    // Solo prioridad, o prioridad + vencimiento ("ALTA que vencen esta semana")
+    @Index(name = "idx_tareas_user_prioridad_vence", columnList = "user_id, prioridad, fecha_vencimiento"),
+    // Solo rango de vencimiento
+    @Index(name = "idx_tareas_user_vence", columnList = "user_id, fecha_vencimiento"),
+    // Rango de última modificación (el de creación usa idx_tareas_user_created_id)
+    @Index(name = "idx_tareas_user_updated", columnList = "user_id, updated_at"),
+    // Revisión nocturna de vencimientos de todos los usuarios, por bloques en el orden del índice
+    @Index(name = "idx_tareas_vence_estado_id", columnList = "fecha_vencimiento, estado, id")
+})
+// Región de la caché de segundo nivel (cache.second-level.enabled). Las sentencias UPDATE/DELETE
+// masivas de TareaRepository vacían la región completa: Hibernate no sabe qué filas tocaron
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tareas")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class TareaModel {
+    // Secuencia con asignación en bloques (pooled): permite agrupar los INSERT en lotes JDBC,
+    // cosa que IDENTITY impide. En MySQL Hibernate la emula con la tabla tareas_seq.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tareas_seq")
+    @SequenceGenerator(name = "tareas_seq", sequenceName = "tareas_seq", allocationSize = 50)
     private Long id;
 
     private String titulo;
@@ -42,10 +69,19 @@ public class TareaModel {
 
     private LocalDate fechaVencimiento;
 
-    @ManyToOne
+    // LAZY: las tareas no necesitan cargar al usuario (ni su hash de contraseña)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private UserModel usuario;
 
+    // Id del dueño en solo lectura, para comprobar la propiedad sin inicializar el proxy de usuario
+    // Hibernate no lo rellena al insertar: se asigna al crear para que la entidad recién guardada
+    // (y su copia en la caché de segundo nivel) no lo tenga a null
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long usuarioId;
+
     @CreationTimestamp
     private Instant createdAt;
 
@@ -1,5 +1,10 @@
 package com.miapp.gestortareas.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,9 +16,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-
+// Regiones de la caché de segundo nivel; solo se usan con cache.second-level.enabled=true
 @Entity
 @Table(name = "usuarios")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@NaturalIdCache(region = "usuarios-email")
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,6 +32,8 @@ public class UserModel {
 
     private String nombre;
 
+    // Id natural mutable: el administrador puede cambiar el email
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String email;
 
@@ -0,0 +1,49 @@
+package com.miapp.gestortareas.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Punto de control de la revisión de vencimientos de un día: la última tarea procesada
+ * (la clave del cursor) y los totales hasta ese momento. Se guarda tras entregar cada
+ * bloque, así que una revisión interrumpida se reanuda desde el bloque siguiente.
+ */
+@Entity
+@Table(name = "vencimiento_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VencimientoCheckpointModel {
+    // Día de referencia de la revisión: una por día
+    @Id
+    private LocalDate fecha;
+
+    // Rango de fechas de vencimiento revisado, fijado al empezar
+    private LocalDate desde;
+    private LocalDate hasta;
+
+    // Cursor: (fechaVencimiento, estado, id) de la última tarea entregada; null antes del primer bloque
+    private LocalDate ultimaFecha;
+    @Enumerated(EnumType.STRING)
+    private Estado ultimoEstado;
+    private Long ultimoId;
+
+    private long tareas;
+    private long avisos;
+    private long lotes;
+    private boolean completado;
+
+    private Instant iniciado;
+    private Instant actualizado;
+}
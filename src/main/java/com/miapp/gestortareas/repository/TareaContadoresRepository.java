@@ -0,0 +1,27 @@
+package com.miapp.gestortareas.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.miapp.gestortareas.model.TareaContadoresModel;
+
+import jakarta.persistence.LockModeType;
+
+public interface TareaContadoresRepository extends JpaRepository<TareaContadoresModel, Long> {
+    // SELECT ... FOR UPDATE: serializa las escrituras de tareas de un mismo usuario
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM TareaContadoresModel c WHERE c.userId = :userId")
+    Optional<TareaContadoresModel> findForUpdate(@Param("userId") Long userId);
+
+    @Query("SELECT c.revision FROM TareaContadoresModel c WHERE c.userId = :userId")
+    Optional<Long> findRevisionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TareaContadoresModel c WHERE c.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,12 +1,177 @@
 package com.miapp.gestortareas.repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
 import com.miapp.gestortareas.model.TareaModel;
-import com.miapp.gestortareas.model.UserModel;
 
-public interface TareaRepository extends JpaRepository<TareaModel, Long> {
-    Page<TareaModel> findByUsuario(UserModel usuario, Pageable pageable);
-    void deleteByUsuario(UserModel usuario);
+import jakarta.persistence.QueryHint;
+
+public interface TareaRepository extends JpaRepository<TareaModel, Long>, TareaRepositoryCustom {
+    // Borrado masivo en una sola sentencia, sin cargar las tareas en el contexto de persistencia
+    @Modifying
+    @Query("DELETE FROM TareaModel t WHERE t.usuario.id = :userId")
+    int deleteAllByUsuarioId(@Param("userId") Long userId);
+
+    long countByUsuarioId(Long userId);
+
+    @Query("SELECT t.id FROM TareaModel t WHERE t.usuario.id = :userId ORDER BY t.id")
+    List<Long> findIdsByUsuarioId(@Param("userId") Long userId, Pageable pageable);
+
+    // Proyecciones: seleccionan solo las columnas de TareaResponse, sin hidratar entidades
+    String RESPONSE_SELECT = "SELECT new com.miapp.gestortareas.DTOs.TareaResponse(" +
+            "t.id, t.titulo, t.descripcion, t.estado, t.prioridad, t.fechaVencimiento, t.createdAt, t.updatedAt) " +
+            "FROM TareaModel t ";
+
+    @Query(value = RESPONSE_SELECT + "WHERE t.usuario.id = :userId",
+           countQuery = "SELECT COUNT(t) FROM TareaModel t WHERE t.usuario.id = :userId")
+    Page<TareaResponse> findResponsesByUsuarioId(@Param("userId") Long userId, Pageable pageable);
+
+    // Consultas acotadas al dueño: una sola sentencia comprueba la propiedad y accede a los datos.
+    // Cacheable: con la caché de consultas activa se invalida en cuanto cambia la tabla tareas
+    @Query(RESPONSE_SELECT + "WHERE t.id = :id AND t.usuario.id = :userId")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<TareaResponse> findResponseByIdAndUsuarioId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Para escrituras: acotada al dueño y siempre leída de la BD, nunca de la caché de segundo nivel,
+    // que en varios nodos puede tener una copia anterior (If-Match y contadores se basan en ella)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    Optional<TareaModel> findByIdAndUsuarioId(Long id, Long userId);
+
+    boolean existsByIdAndUsuarioId(Long id, Long userId);
+
+    // Solo lo necesario para el ETag: responde a If-None-Match sin construir el DTO
+    @Query("SELECT t.updatedAt FROM TareaModel t WHERE t.id = :id AND t.usuario.id = :userId")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Instant> findUpdatedAtByIdAndUsuarioId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Cambio de estado en una sola sentencia UPDATE, sin cargar la entidad; devuelve las filas afectadas
+    @Modifying
+    @Query("UPDATE TareaModel t SET t.estado = :estado, t.updatedAt = :ahora " +
+           "WHERE t.id = :id AND t.usuario.id = :userId")
+    int actualizarEstado(@Param("id") Long id, @Param("userId") Long userId,
+                         @Param("estado") Estado estado, @Param("ahora") Instant ahora);
+
+    // Igual que actualizarEstado, pero solo si la tarea no cambió desde updatedAt (concurrencia optimista)
+    @Modifying
+    @Query("UPDATE TareaModel t SET t.estado = :estado, t.updatedAt = :ahora " +
+           "WHERE t.id = :id AND t.usuario.id = :userId AND t.updatedAt = :esperado")
+    int actualizarEstadoSiNoModificada(@Param("id") Long id, @Param("userId") Long userId,
+                                       @Param("estado") Estado estado, @Param("ahora") Instant ahora,
+                                       @Param("esperado") Instant esperado);
+
+    @Modifying
+    @Query("DELETE FROM TareaModel t WHERE t.id = :id AND t.usuario.id = :userId")
+    int deleteByIdAndUsuarioId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Operaciones por lotes, siempre acotadas al dueño
+    @Modifying
+    @Query("UPDATE TareaModel t SET t.estado = :estado, t.updatedAt = :ahora " +
+           "WHERE t.usuario.id = :userId AND t.id IN :ids")
+    int actualizarEstadoEnLote(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                               @Param("estado") Estado estado, @Param("ahora") Instant ahora);
+
+    @Modifying
+    @Query("DELETE FROM TareaModel t WHERE t.usuario.id = :userId AND t.id IN :ids")
+    int deleteByUsuarioIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Paginación por cursor (keyset) sobre (createdAt, id): no ejecuta COUNT y no usa OFFSET
+    @Query(RESPONSE_SELECT + "WHERE t.usuario.id = :userId ORDER BY t.createdAt ASC, t.id ASC")
+    List<TareaResponse> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE t.usuario.id = :userId " +
+           "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<TareaResponse> findPageAfter(@Param("userId") Long userId,
+                                      @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // Búsqueda de texto: datos para construir el índice y recuperación de los resultados
+    interface TextoTarea {
+        Long getId();
+        String getTitulo();
+        String getDescripcion();
+    }
+
+    @Query("SELECT t.id AS id, t.titulo AS titulo, t.descripcion AS descripcion FROM TareaModel t WHERE t.usuario.id = :userId")
+    List<TextoTarea> findTextosByUsuarioId(@Param("userId") Long userId);
+
+    @Query(RESPONSE_SELECT + "WHERE t.usuario.id = :userId AND t.id IN :ids")
+    List<TareaResponse> findResponsesByUsuarioIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Contadores por usuario (TareaStatsService): clasificación de las tareas afectadas por un cambio
+    interface ClasificacionTarea {
+        Long getId();
+        Estado getEstado();
+        Prioridad getPrioridad();
+        Instant getUpdatedAt();
+    }
+
+    @Query("SELECT t.id AS id, t.estado AS estado, t.prioridad AS prioridad, t.updatedAt AS updatedAt FROM TareaModel t " +
+           "WHERE t.id = :id AND t.usuario.id = :userId")
+    Optional<ClasificacionTarea> findClasificacionByIdAndUsuarioId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT t.id AS id, t.estado AS estado, t.prioridad AS prioridad, t.updatedAt AS updatedAt FROM TareaModel t " +
+           "WHERE t.usuario.id = :userId AND t.id IN :ids")
+    List<ClasificacionTarea> findClasificacionesByUsuarioIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    interface ConteoTareas {
+        Estado getEstado();
+        Prioridad getPrioridad();
+        long getTotal();
+    }
+
+    // Recuento completo, solo para reconstruir los contadores
+    @Query("SELECT t.estado AS estado, t.prioridad AS prioridad, COUNT(t) AS total FROM TareaModel t " +
+           "WHERE t.usuario.id = :userId GROUP BY t.estado, t.prioridad")
+    List<ConteoTareas> contarPorEstadoYPrioridad(@Param("userId") Long userId);
+
+    // Usa idx_tareas_user_vence: el coste depende de las tareas vencidas, no del total
+    @Query("SELECT COUNT(t) FROM TareaModel t WHERE t.usuario.id = :userId " +
+           "AND t.fechaVencimiento < :hoy AND t.estado <> :completada")
+    long countVencidas(@Param("userId") Long userId, @Param("hoy") LocalDate hoy, @Param("completada") Estado completada);
+
+    // Revisión de vencimientos (VencimientoScanService): tareas sin completar con fecha en [desde, hasta]
+    interface VencimientoTarea {
+        Long getId();
+        Long getUsuarioId();
+        String getTitulo();
+        Prioridad getPrioridad();
+        Estado getEstado();
+        LocalDate getFechaVencimiento();
+    }
+
+    String VENCIMIENTO_SELECT = "SELECT t.id AS id, t.usuarioId AS usuarioId, t.titulo AS titulo, t.prioridad AS prioridad, " +
+            "t.estado AS estado, t.fechaVencimiento AS fechaVencimiento FROM TareaModel t " +
+            "WHERE t.fechaVencimiento BETWEEN :desde AND :hasta AND t.estado <> :completada ";
+
+    // Bloques por cursor sobre (fechaVencimiento, estado, id), el orden de idx_tareas_vence_estado_id:
+    // cada bloque continúa el recorrido del índice sin OFFSET y sin bloquear filas
+    @Query(VENCIMIENTO_SELECT + "ORDER BY t.fechaVencimiento ASC, t.estado ASC, t.id ASC")
+    List<VencimientoTarea> findVencimientosPrimerBloque(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta,
+                                                        @Param("completada") Estado completada, Pageable pageable);
+
+    @Query(VENCIMIENTO_SELECT +
+           "AND (t.fechaVencimiento > :fecha OR (t.fechaVencimiento = :fecha " +
+           "AND (t.estado > :estado OR (t.estado = :estado AND t.id > :id)))) " +
+           "ORDER BY t.fechaVencimiento ASC, t.estado ASC, t.id ASC")
+    List<VencimientoTarea> findVencimientosDespues(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta,
+                                                   @Param("completada") Estado completada,
+                                                   @Param("fecha") LocalDate fecha, @Param("estado") Estado estado,
+                                                   @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.miapp.gestortareas.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.model.TareaModel;
+
+public interface TareaRepositoryCustom {
+    // Como findResponsesByUsuarioId, pero con condiciones dinámicas (ver TareaSpecifications)
+    Page<TareaResponse> findResponses(Specification<TareaModel> spec, Pageable pageable);
+}
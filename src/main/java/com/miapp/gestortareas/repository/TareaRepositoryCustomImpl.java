@@ -0,0 +1,57 @@
+package com.miapp.gestortareas.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.model.TareaModel;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * JpaSpecificationExecutor devuelve entidades; aquí se aplica la Specification sobre una
+ * proyección a TareaResponse, igual que RESPONSE_SELECT en las consultas estáticas.
+ */
+class TareaRepositoryCustomImpl implements TareaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TareaResponse> findResponses(Specification<TareaModel> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TareaResponse> query = cb.createQuery(TareaResponse.class);
+        Root<TareaModel> t = query.from(TareaModel.class);
+        query.select(cb.construct(TareaResponse.class,
+                t.get("id"), t.get("titulo"), t.get("descripcion"), t.get("estado"), t.get("prioridad"),
+                t.get("fechaVencimiento"), t.get("createdAt"), t.get("updatedAt")));
+        query.where(spec.toPredicate(t, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), t, cb));
+
+        TypedQuery<TareaResponse> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        List<TareaResponse> contenido = typed.getResultList();
+        return PageableExecutionUtils.getPage(contenido, pageable, () -> contar(spec));
+    }
+
+    private long contar(Specification<TareaModel> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TareaModel> t = query.from(TareaModel.class);
+        query.select(cb.count(t)).where(spec.toPredicate(t, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,56 @@
+package com.miapp.gestortareas.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.miapp.gestortareas.DTOs.TareaFiltro;
+import com.miapp.gestortareas.model.TareaModel;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Condiciones dinámicas sobre tareas. Solo se añaden al WHERE los filtros presentes,
+ * de modo que el optimizador puede usar el índice compuesto que corresponda.
+ */
+public final class TareaSpecifications {
+
+    private TareaSpecifications() {
+    }
+
+    public static Specification<TareaModel> delUsuario(Long userId) {
+        return (t, query, cb) -> cb.equal(t.get("usuario").get("id"), userId);
+    }
+
+    public static Specification<TareaModel> conFiltro(TareaFiltro f) {
+        return (t, query, cb) -> {
+            List<Predicate> condiciones = new ArrayList<>();
+            if (f.getEstado() != null && !f.getEstado().isEmpty()) {
+                condiciones.add(t.get("estado").in(f.getEstado()));
+            }
+            if (f.getPrioridad() != null && !f.getPrioridad().isEmpty()) {
+                condiciones.add(t.get("prioridad").in(f.getPrioridad()));
+            }
+            if (f.getVenceDesde() != null) {
+                condiciones.add(cb.greaterThanOrEqualTo(t.get("fechaVencimiento"), f.getVenceDesde()));
+            }
+            if (f.getVenceHasta() != null) {
+                condiciones.add(cb.lessThanOrEqualTo(t.get("fechaVencimiento"), f.getVenceHasta()));
+            }
+            if (f.getCreadaDesde() != null) {
+                condiciones.add(cb.greaterThanOrEqualTo(t.get("createdAt"), f.getCreadaDesde()));
+            }
+            if (f.getCreadaHasta() != null) {
+                condiciones.add(cb.lessThanOrEqualTo(t.get("createdAt"), f.getCreadaHasta()));
+            }
+            if (f.getActualizadaDesde() != null) {
+                condiciones.add(cb.greaterThanOrEqualTo(t.get("updatedAt"), f.getActualizadaDesde()));
+            }
+            if (f.getActualizadaHasta() != null) {
+                condiciones.add(cb.lessThanOrEqualTo(t.get("updatedAt"), f.getActualizadaHasta()));
+            }
+            return cb.and(condiciones.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,10 +1,51 @@
 package com.miapp.gestortareas.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import com.miapp.gestortareas.DTOs.UserResponse;
 import com.miapp.gestortareas.model.UserModel;
 
-public interface UserRepository extends JpaRepository<UserModel, Long> {
-    Optional<UserModel> findByEmail(String email);
+import jakarta.persistence.QueryHint;
+
+// findByEmail está en UserRepositoryCustom: se resuelve por id natural
+public interface UserRepository extends JpaRepository<UserModel, Long>, UserRepositoryCustom {
     boolean existsByEmail(String email);
+
+    // Para comprobar la contraseña o la versión de token: siempre leída de la BD, nunca de la caché
+    // de segundo nivel, que en varios nodos puede tener una copia anterior (un refresh token ya
+    // rotado o revocado seguiría siendo válido hasta que caducase la entrada)
+    @Query("SELECT u FROM UserModel u WHERE u.email = :email")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    Optional<UserModel> findByEmailSinCache(@Param("email") String email);
+
+    // Proyección para el listado de administración: nunca selecciona el hash de la contraseña
+    String RESPONSE_SELECT = "SELECT new com.miapp.gestortareas.DTOs.UserResponse(u.id, u.nombre, u.email, u.role) " +
+            "FROM UserModel u ";
+
+    String FILTROS = "WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (:emailPrefix IS NULL OR u.email LIKE CONCAT(:emailPrefix, '%') ESCAPE '\\')";
+
+    @Query(value = RESPONSE_SELECT + FILTROS,
+           countQuery = "SELECT COUNT(u) FROM UserModel u " + FILTROS)
+    Page<UserResponse> buscar(@Param("role") String role,
+                              @Param("emailPrefix") String emailPrefix,
+                              Pageable pageable);
+
+    // Recorre la tabla con un cursor de solo avance; debe consumirse dentro de una transacción.
+    // En MySQL requiere useCursorFetch=true en la URL para que se respete el fetch size.
+    @Query(RESPONSE_SELECT + "ORDER BY u.id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserResponse> streamAll();
+
+    @Query("SELECT u.id FROM UserModel u ORDER BY u.id")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,11 @@
+package com.miapp.gestortareas.repository;
+
+import java.util.Optional;
+
+import com.miapp.gestortareas.model.UserModel;
+
+public interface UserRepositoryCustom {
+    // Búsqueda por id natural (email): con la caché de segundo nivel activa no consulta la BD.
+    // Solo para lecturas sin efectos de seguridad (p. ej. /me); si no, findByEmailSinCache
+    Optional<UserModel> findByEmail(String email);
+}
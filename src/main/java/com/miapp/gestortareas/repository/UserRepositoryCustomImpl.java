@@ -0,0 +1,31 @@
+package com.miapp.gestortareas.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import com.miapp.gestortareas.model.UserModel;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+/**
+ * Una consulta derivada (SELECT ... WHERE email = ?) siempre va a la base de datos; la carga por
+ * id natural resuelve email -> id en la región usuarios-email y la entidad en la región usuarios.
+ * Sin caché de segundo nivel es una única SELECT por email, igual que antes.
+ */
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // La sesión se obtiene con unwrap: hace falta una transacción para que siga abierta durante la carga
+    @Override
+    @Transactional
+    public Optional<UserModel> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserModel.class)
+                .loadOptional(email);
+    }
+}
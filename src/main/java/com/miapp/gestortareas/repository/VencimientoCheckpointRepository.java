@@ -0,0 +1,13 @@
+package com.miapp.gestortareas.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.miapp.gestortareas.model.VencimientoCheckpointModel;
+
+public interface VencimientoCheckpointRepository extends JpaRepository<VencimientoCheckpointModel, LocalDate> {
+    // Revisiones interrumpidas (reinicio del proceso a mitad), para reanudarlas al arrancar
+    List<VencimientoCheckpointModel> findByCompletadoFalseOrderByFechaAsc();
+}
@@ -0,0 +1,16 @@
+package com.miapp.gestortareas.security;
+
+import java.security.Principal;
+
+/**
+ * Principal que JwtFilter deja en el contexto de seguridad. Incluye el id del usuario
+ * para que los servicios no tengan que buscarlo por email en cada petición.
+ * getName() devuelve el email, igual que antes.
+ */
+public record AuthenticatedUser(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,8 +1,10 @@
 package com.miapp.gestortareas.security;
 
 
-import com.miapp.gestortareas.model.UserModel;
-import com.miapp.gestortareas.repository.UserRepository;
+import com.miapp.gestortareas.metrics.RequestTiming;
+import com.miapp.gestortareas.security.TokenVersionCache.UserTokenInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,11 +25,22 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final TokenVersionCache tokenVersionCache;
+    private final Timer verifyTimer;
 
-    public JwtFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtFilter(JwtUtil jwtUtil, TokenVersionCache tokenVersionCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.tokenVersionCache = tokenVersionCache;
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("Tiempo de verificación del JWT (incluye aciertos de caché)")
+                .register(meterRegistry);
+    }
+
+    // Las respuestas en streaming terminan con un dispatch ASYNC que vuelve a pasar por la
+    // cadena de seguridad; como no hay sesión, el token debe autenticarse también ahí.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
     }
 
     @Override
@@ -42,23 +55,27 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
+        long inicio = System.nanoTime();
         try {
             String token = authHeader.substring(BEARER_PREFIX.length());
-            String email = jwtUtil.extraerEmail(token);
+            // Se verifica la firma una sola vez y se reutilizan los claims
+            VerifiedToken verified = verifyTimer.record(() -> jwtUtil.verificar(token));
+            String email = verified.email();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Cargar usuario para verificar la versión del token
-                UserModel user = userRepository.findByEmail(email).orElse(null);
-                Integer tokenVersion = jwtUtil.extraerClaim(token, claims -> claims.get("version", Integer.class));
+                // Obtener la versión actual del token (desde caché, sin ir a la BD en cada petición)
+                UserTokenInfo user = tokenVersionCache.get(email);
+                Integer tokenVersion = verified.version();
 
                 // Solo si el usuario existe y la versión del token es la correcta
-                if (user != null && tokenVersion != null && user.getTokenVersion() == tokenVersion) {
-                    String role = jwtUtil.extraerClaim(token, claims -> claims.get("role", String.class));
+                if (user != null && tokenVersion != null && user.tokenVersion() == tokenVersion) {
+                    String role = verified.role();
                     if (role != null) {
                         SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
 
+                        AuthenticatedUser principal = new AuthenticatedUser(user.userId(), email);
                         UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(email, null, Collections.singletonList(authority));
+                                new UsernamePasswordAuthenticationToken(principal, null, Collections.singletonList(authority));
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
                     }
@@ -67,6 +84,7 @@ public class JwtFilter extends OncePerRequestFilter {
         } catch (Exception e) {
             logger.error("Error processing JWT token: {}", e.getMessage());
         }
+        RequestTiming.registrarFase("auth", System.nanoTime() - inicio);
 
         filterChain.doFilter(request, response);
     }
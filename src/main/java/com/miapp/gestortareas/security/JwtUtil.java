@@ -1,14 +1,23 @@
 package com.miapp.gestortareas.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
 
 
 @Component
@@ -22,6 +31,45 @@ public class JwtUtil {
     @Value("${jwt.refresh.expiration}")
     private long refreshExpirationTime;
 
+    @Value("${jwt.cache.verified-max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // La clave y el parser se construyen una sola vez; JwtParser es inmutable y thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Tokens ya verificados, indexados por el hash del token, hasta su expiración
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = getSigningKey();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long restanteMs = value.expiration() == null
+                                ? 0 : value.expiration().getTime() - System.currentTimeMillis();
+                        return Math.max(0, restanteMs) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     // Generar token
     public String generarToken(String email, String role, Integer tokenVersion) {
         return Jwts.builder()
@@ -32,7 +80,7 @@ public class JwtUtil {
                 .setSubject(email) // el email será el "dueño" del token
                 .setIssuedAt(new Date()) // fecha de creación
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime)) // vencimiento
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // algoritmo y clave
+                .signWith(signingKey, SignatureAlgorithm.HS256) // algoritmo y clave
                 .compact();
     }
 
@@ -42,13 +90,29 @@ public class JwtUtil {
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + refreshExpirationTime))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica firma y expiración del token una sola vez y devuelve sus claims.
+     * Los tokens ya verificados se sirven desde caché hasta que expiran.
+     * Lanza JwtException si el token no es válido.
+     */
+    public VerifiedToken verificar(String token) {
+        return verifiedTokens.get(hash(token), key -> {
+            Claims claims = extraerTodosLosClaims(token);
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("version", Integer.class),
+                    claims.getExpiration());
+        });
+    }
+
     // Extraer email (subject)
     public String extraerEmail(String token) {
-        return extraerClaim(token, Claims::getSubject);
+        return verificar(token).email();
     }
 
     // Extraer un claim específico
@@ -58,13 +122,21 @@ public class JwtUtil {
     }
 
     private Claims extraerTodosLosClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
     private Key getSigningKey() {
         if (secretKey == null) {
             throw new IllegalStateException("La clave secreta JWT (jwt.secret) no está configurada en application.properties");
@@ -72,4 +144,4 @@ public class JwtUtil {
         byte[] keyBytes = this.secretKey.getBytes();
         return new SecretKeySpec(keyBytes, SignatureAlgorithm.HS256.getJcaName());
     }
-}
\ No newline at end of file
+}
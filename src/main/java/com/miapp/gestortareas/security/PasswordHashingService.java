@@ -0,0 +1,179 @@
+package com.miapp.gestortareas.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.miapp.gestortareas.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ejecuta las operaciones de bcrypt en un pool propio y acotado, para que una ráfaga de
+ * logins o registros no ocupe todos los hilos de Tomcat. La cola admite unas pocas
+ * operaciones por hilo y la espera es corta: si el pool y su cola están llenos, o la espera
+ * supera el timeout, se rechaza enseguida con ServiceBusyException (HTTP 503 + Retry-After)
+ * en lugar de dejar hilos de Tomcat parados esperando.
+ */
+@Component
+public class PasswordHashingService {
+
+    private static final int COLA_POR_HILO = 4;
+    private static final Pattern BCRYPT_PREFIJO = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final long retryAfterSeconds;
+    private final int bcryptStrength;
+
+    // Métricas de latencia del hash (solo el tiempo de bcrypt, sin la espera en cola)
+    private final LongAdder operaciones = new LongAdder();
+    private final LongAdder nanosTotales = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder rechazadas = new LongAdder();
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public PasswordHashingService(PasswordEncoder encoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.bcrypt.pool-size:0}") int poolSize,
+                                  @Value("${security.bcrypt.queue-capacity:0}") int queueCapacity,
+                                  @Value("${security.bcrypt.timeout-ms:1000}") long timeoutMs,
+                                  @Value("${security.bcrypt.retry-after-seconds:1}") long retryAfterSeconds,
+                                  @Value("${security.bcrypt.strength:10}") int bcryptStrength) {
+        this.encoder = encoder;
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.bcryptStrength = bcryptStrength;
+        // Por defecto un hilo por núcleo: bcrypt es puramente CPU
+        int hilos = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        // Por defecto cuatro operaciones en espera por hilo: con ~80 ms por hash (coste 10)
+        // la cola se vacía en unos 300 ms, muy por debajo del timeout
+        int capacidad = queueCapacity > 0 ? queueCapacity : hilos * COLA_POR_HILO;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidad),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("security.bcrypt").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("security.bcrypt").tag("operation", "matches").register(meterRegistry);
+        FunctionCounter.builder("security.bcrypt.rejected", rechazadas, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("security.bcrypt.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("security.bcrypt.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return ejecutar(() -> encoder.encode(rawPassword), encodeTimer);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return ejecutar(() -> encoder.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * Indica si el hash se generó con un coste distinto del configurado (mayor o menor) y
+     * debe regenerarse. No calcula ningún hash, solo lee el coste del prefijo $2a$NN$.
+     * Un hash que no es bcrypt se deja como está.
+     */
+    public boolean necesitaRehash(String encodedPassword) {
+        Matcher matcher = encodedPassword == null ? null : BCRYPT_PREFIJO.matcher(encodedPassword);
+        if (matcher == null || !matcher.lookingAt()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    private <T> T ejecutar(Callable<T> tarea, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> medir(tarea, timer));
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            throw new ServiceBusyException("El servidor está saturado. Inténtalo de nuevo en unos segundos.", retryAfterSeconds);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rechazadas.increment();
+            throw new ServiceBusyException("El servidor está saturado. Inténtalo de nuevo en unos segundos.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Operación de contraseña interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T medir(Callable<T> tarea, Timer timer) throws Exception {
+        long inicio = System.nanoTime();
+        try {
+            return tarea.call();
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            operaciones.increment();
+            nanosTotales.add(duracion);
+            maxNanos.accumulateAndGet(duracion, Math::max);
+            timer.record(duracion, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public long getOperaciones() {
+        return operaciones.sum();
+    }
+
+    public double getLatenciaMediaMs() {
+        long n = operaciones.sum();
+        return n == 0 ? 0 : nanosTotales.sum() / 1_000_000.0 / n;
+    }
+
+    public double getLatenciaMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    public int getEnCola() {
+        return executor.getQueue().size();
+    }
+
+    public int getActivos() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+package com.miapp.gestortareas.security;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miapp.gestortareas.exception.ErrorResponse;
+import com.miapp.gestortareas.security.RateLimitProperties.Key;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica RateLimiter dentro de las cadenas de seguridad: en /auth/** antes de cualquier
+ * trabajo (y de bcrypt), y en /api/** después de JwtFilter para poder limitar por usuario.
+ * Responde con las cabeceras RateLimit-* y, si el cubo está vacío, 429 con Retry-After.
+ * Detrás de un proxy la IP del cliente sale de X-Forwarded-For solo si se activa
+ * server.forward-headers-strategy.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimiter.Limite limite = rateLimiter.buscar(path);
+        if (limite == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenBucket.Decision decision = limite.consumir(clave(limite.route.key(), request));
+        RateLimitProperties.Route route = limite.route;
+        response.setHeader("RateLimit-Policy", route.limit() + ";w=" + route.window().toSeconds() + ";burst=" + route.capacidad());
+        response.setHeader("RateLimit-Limit", String.valueOf(route.capacidad()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.restantes()));
+        response.setHeader("RateLimit-Reset", String.valueOf(segundos(decision.hastaLleno())));
+
+        if (decision.permitida()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos(decision.reintentarEn())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Demasiadas peticiones. Inténtalo de nuevo más tarde."));
+    }
+
+    // Sin usuario autenticado (token ausente o inválido) se limita por IP
+    private static String clave(Key key, HttpServletRequest request) {
+        if (key == Key.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                return "u:" + user.id();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Los segundos de las cabeceras se redondean hacia arriba: 0 solo si ya no hay que esperar
+    private static long segundos(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.miapp.gestortareas.security;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Límites de peticiones por ruta (security.rate-limit.*). Cada ruta permite {@code limit}
+ * peticiones por {@code window} con ráfagas de hasta {@code burst}; se aplica la primera
+ * ruta cuyo patrón coincida, en el orden configurado.
+ */
+@ConfigurationProperties("security.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        // Máximo de claves (IPs o usuarios) con cubo en memoria, por ruta
+        @DefaultValue("100000") long maxKeys,
+        @DefaultValue List<Route> routes) {
+
+    /** Qué identifica al cliente: la IP de origen o el usuario autenticado. */
+    public enum Key {
+        IP, USER
+    }
+
+    public record Route(String pattern, Key key, int limit, Duration window, Integer burst) {
+
+        public int capacidad() {
+            return burst != null ? burst : limit;
+        }
+    }
+}
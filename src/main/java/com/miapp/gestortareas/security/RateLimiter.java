@@ -0,0 +1,96 @@
+package com.miapp.gestortareas.security;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miapp.gestortareas.security.RateLimitProperties.Route;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cubos de tokens por ruta y cliente (IP o usuario) según security.rate-limit.routes.
+ * Los cubos viven en una caché Caffeine por ruta: lecturas sin bloqueo, acotada a max-keys
+ * y con expiración por inactividad igual al tiempo de rellenar el cubo, de modo que una
+ * entrada solo desaparece cuando ya estaría llena y no se pierde ninguna limitación.
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final List<Limite> limites;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.limites = properties.routes().stream()
+                .map(route -> new Limite(route, properties.maxKeys(), meterRegistry))
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return enabled && !limites.isEmpty();
+    }
+
+    /** Límite de la primera ruta que coincide con la petición, o null si no hay ninguno. */
+    Limite buscar(String path) {
+        for (Limite limite : limites) {
+            if (matcher.match(limite.route.pattern(), path)) {
+                return limite;
+            }
+        }
+        return null;
+    }
+
+    static final class Limite {
+
+        final Route route;
+        private final long intervalo;
+        private final long tolerancia;
+        private final Cache<String, TokenBucket> cubos;
+        private final Counter permitidas;
+        private final Counter rechazadas;
+
+        private Limite(Route route, long maxKeys, MeterRegistry meterRegistry) {
+            if (route.pattern() == null || route.key() == null || route.window() == null
+                    || route.limit() <= 0 || route.capacidad() <= 0 || route.window().isNegative() || route.window().isZero()) {
+                throw new IllegalArgumentException("Límite de peticiones mal configurado: " + route);
+            }
+            this.route = route;
+            this.intervalo = Math.max(1, route.window().toNanos() / route.limit());
+            this.tolerancia = intervalo * route.capacidad();
+            this.cubos = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(Math.max(tolerancia, Duration.ofSeconds(1).toNanos())))
+                    .build();
+            this.permitidas = contador(meterRegistry, "permitida");
+            this.rechazadas = contador(meterRegistry, "rechazada");
+            Gauge.builder("security.rate-limit.keys", cubos, Cache::estimatedSize)
+                    .description("Clientes con cubo de tokens en memoria")
+                    .tag("route", route.pattern())
+                    .register(meterRegistry);
+        }
+
+        private Counter contador(MeterRegistry meterRegistry, String resultado) {
+            return Counter.builder("security.rate-limit.requests")
+                    .description("Peticiones sometidas al límite, por ruta y resultado")
+                    .tag("route", route.pattern())
+                    .tag("resultado", resultado)
+                    .register(meterRegistry);
+        }
+
+        TokenBucket.Decision consumir(String clave) {
+            long ahora = System.nanoTime();
+            TokenBucket.Decision decision = cubos.get(clave, k -> new TokenBucket(ahora))
+                    .consumir(ahora, intervalo, tolerancia);
+            (decision.permitida() ? permitidas : rechazadas).increment();
+            return decision;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.miapp.gestortareas.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -19,30 +21,43 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.miapp.gestortareas.repository.UserRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
     private final UserRepository userRepository;
 
+    // Coste de bcrypt; al cambiarlo, los hashes antiguos se regeneran en el siguiente login
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     public SecurityConfig(UserRepository userRepository) 
         { this.userRepository = userRepository; }
 
     @Bean
     @Order(1)
-    public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain publicFilterChain(HttpSecurity http, RateLimiter rateLimiter, ObjectMapper objectMapper) throws Exception {
         http
             .securityMatcher("/auth/**", "/swagger-ui/**", "/v3/api-docs/**")
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Añadir esta línea
             .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+        // Por IP y antes de llegar al controlador: un rechazo no cuesta ningún hash de bcrypt
+        if (rateLimiter.isEnabled()) {
+            http.addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), UsernamePasswordAuthenticationFilter.class);
+        }
         return http.build();
     }
 
     @Bean
     @Order(2)
-    public SecurityFilterChain privateFilterChain(HttpSecurity http, JwtFilter jwtFilter) throws Exception {
+    public SecurityFilterChain privateFilterChain(HttpSecurity http, JwtFilter jwtFilter,
+                                                  RateLimiter rateLimiter, ObjectMapper objectMapper) throws Exception {
         http
                 .securityMatcher("/api/**") // Esta cadena SOLO se aplica a las rutas /api/**
                 .csrf(csrf -> csrf.disable())
@@ -51,18 +66,22 @@ public class SecurityConfig {
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        // Después de JwtFilter, para limitar por usuario autenticado
+        if (rateLimiter.isEnabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtFilter.class);
+        }
         
         return http.build();
     }
 
     @Bean
-    public JwtFilter jwtFilter(JwtUtil jwtUtil, UserRepository userRepository) {
-        return new JwtFilter(jwtUtil, userRepository);
+    public JwtFilter jwtFilter(JwtUtil jwtUtil, TokenVersionCache tokenVersionCache, MeterRegistry meterRegistry) {
+        return new JwtFilter(jwtUtil, tokenVersionCache, meterRegistry);
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -80,7 +99,7 @@ public class SecurityConfig {
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+        return username -> userRepository.findByEmailSinCache(username)
                 .map(user -> new org.springframework.security.core.userdetails.User(
                         user.getEmail(),
                         user.getPassword(),
@@ -0,0 +1,37 @@
+package com.miapp.gestortareas.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de tokens sin bloqueos, en su forma GCRA: en vez de contar tokens guarda en un único
+ * AtomicLong el instante teórico en que el cubo volverá a estar lleno. Consumir un token lo
+ * adelanta un intervalo (window / limit); si quedaría más de {@code capacidad} intervalos por
+ * delante del reloj, el cubo está vacío. Un compareAndSet por petición, sin hilo de recarga.
+ */
+final class TokenBucket {
+
+    /** Resultado de una petición: tiempos en nanosegundos desde ahora. */
+    record Decision(boolean permitida, long restantes, long hastaLleno, long reintentarEn) {
+    }
+
+    private final AtomicLong lleno;
+
+    TokenBucket(long ahora) {
+        this.lleno = new AtomicLong(ahora);
+    }
+
+    Decision consumir(long ahora, long intervalo, long tolerancia) {
+        while (true) {
+            long actual = lleno.get();
+            long nuevo = Math.max(actual, ahora) + intervalo;
+            long ocupado = nuevo - ahora;
+            if (ocupado > tolerancia) {
+                // Sin tokens: no se modifica el estado, el rechazo no consume
+                return new Decision(false, 0, ocupado - intervalo, ocupado - tolerancia);
+            }
+            if (lleno.compareAndSet(actual, nuevo)) {
+                return new Decision(true, (tolerancia - ocupado) / intervalo, ocupado, 0);
+            }
+        }
+    }
+}
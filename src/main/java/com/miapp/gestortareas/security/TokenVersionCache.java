@@ -0,0 +1,84 @@
+package com.miapp.gestortareas.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.miapp.gestortareas.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché en memoria de la versión de token de cada usuario, indexada por email.
+ * Evita que JwtFilter consulte la base de datos en cada petición autenticada.
+ * Tiene tamaño máximo y expiración por TTL; UserService la invalida cuando
+ * cambia la versión del token, el email o se elimina el usuario.
+ */
+@Component
+public class TokenVersionCache {
+
+    /** Datos mínimos del usuario que necesita el filtro JWT. */
+    public record UserTokenInfo(Long userId, int tokenVersion) {
+    }
+
+    private final LoadingCache<String, UserTokenInfo> cache;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${jwt.cache.max-size:10000}") long maxSize,
+                             @Value("${jwt.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(email -> userRepository.findByEmailSinCache(email)
+                        .map(user -> new UserTokenInfo(user.getId(), user.getTokenVersion()))
+                        .orElse(null)); // No se cachean usuarios inexistentes
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "token-version");
+    }
+
+    /**
+     * Devuelve la información de token del usuario, o null si no existe.
+     */
+    public UserTokenInfo get(String email) {
+        return cache.get(email);
+    }
+
+    /**
+     * Invalida la entrada del usuario. Si hay una transacción activa se vuelve a
+     * invalidar tras el commit, para que ninguna petición concurrente deje en la
+     * caché la versión anterior leída antes de confirmarse el cambio.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,10 @@
+package com.miapp.gestortareas.security;
+
+import java.util.Date;
+
+/**
+ * Claims de un JWT cuya firma y expiración ya fueron verificadas por JwtUtil.
+ * Es inmutable, así que puede reutilizarse entre hilos y guardarse en caché.
+ */
+public record VerifiedToken(String email, String role, Integer version, Date expiration) {
+}
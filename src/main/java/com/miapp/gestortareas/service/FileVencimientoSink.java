@@ -0,0 +1,54 @@
+package com.miapp.gestortareas.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miapp.gestortareas.DTOs.AvisoVencimiento;
+
+/**
+ * Añade cada aviso como una línea JSON (NDJSON) a un fichero local. Con DSYNC cada bloque
+ * está en disco antes de que la revisión guarde su punto de control.
+ */
+@Component
+@ConditionalOnProperty(name = "vencimientos.sink.type", havingValue = "file")
+public class FileVencimientoSink implements VencimientoSink {
+
+	private final ObjectMapper objectMapper;
+	private final Path fichero;
+
+	public FileVencimientoSink(ObjectMapper objectMapper,
+	                           @Value("${vencimientos.sink.file:logs/vencimientos.ndjson}") String fichero) {
+		this.objectMapper = objectMapper;
+		this.fichero = Path.of(fichero);
+	}
+
+	@Override
+	public synchronized void entregar(List<AvisoVencimiento> avisos) {
+		try {
+			if (fichero.getParent() != null) {
+				Files.createDirectories(fichero.getParent());
+			}
+			try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(fichero,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC), StandardCharsets.UTF_8))) {
+				for (AvisoVencimiento aviso : avisos) {
+					writer.write(objectMapper.writeValueAsString(aviso));
+					writer.newLine();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudieron escribir los avisos en " + fichero, e);
+		}
+	}
+}
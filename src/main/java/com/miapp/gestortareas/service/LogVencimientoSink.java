@@ -0,0 +1,25 @@
+package com.miapp.gestortareas.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.miapp.gestortareas.DTOs.AvisoVencimiento;
+
+// Destino por defecto: una línea de log por aviso, en lugar de un envío real
+@Component
+@ConditionalOnProperty(name = "vencimientos.sink.type", havingValue = "log", matchIfMissing = true)
+public class LogVencimientoSink implements VencimientoSink {
+	private static final Logger logger = LoggerFactory.getLogger(LogVencimientoSink.class);
+
+	@Override
+	public void entregar(List<AvisoVencimiento> avisos) {
+		for (AvisoVencimiento aviso : avisos) {
+			logger.info("Aviso de vencimiento para el usuario {}: {} vencidas, {} próximas",
+				aviso.getUserId(), aviso.getVencidas().size(), aviso.getProximas().size());
+		}
+	}
+}
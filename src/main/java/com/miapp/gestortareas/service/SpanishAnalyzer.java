@@ -0,0 +1,78 @@
+package com.miapp.gestortareas.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenización para texto en español: minúsculas, sin tildes ni diéresis, sin palabras
+ * vacías y con un stemming ligero que unifica singular/plural y género
+ * (tarea/tareas → "tare", reunión/reuniones → "reunion", luz/luces → "luz").
+ */
+final class SpanishAnalyzer {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_LONGITUD_TERMINO = 40;
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "algo", "ante", "como", "con", "cual", "de", "del", "desde", "donde", "e", "el",
+            "en", "entre", "era", "es", "esa", "ese", "eso", "esta", "este", "esto", "ha", "hay", "la",
+            "las", "le", "les", "lo", "los", "mas", "me", "mi", "mis", "muy", "ni", "no", "nos", "o",
+            "para", "pero", "por", "que", "se", "ser", "si", "sin", "sobre", "son", "su", "sus", "te",
+            "tu", "tus", "u", "un", "una", "unas", "uno", "unos", "y", "ya", "yo");
+
+    private SpanishAnalyzer() {
+    }
+
+    /** Términos indexables del texto, en orden y con repeticiones. */
+    static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (token.isEmpty() || PALABRAS_VACIAS.contains(token)) {
+                continue;
+            }
+            if (token.length() > MAX_LONGITUD_TERMINO) {
+                token = token.substring(0, MAX_LONGITUD_TERMINO);
+            }
+            terminos.add(raiz(token));
+        }
+        return terminos;
+    }
+
+    private static String normalizar(String texto) {
+        String descompuesto = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return MARCAS.matcher(descompuesto).replaceAll("");
+    }
+
+    // Stemmer ligero para español (mismas reglas que el "light stemmer" de Savoy)
+    private static String raiz(String t) {
+        int n = t.length();
+        if (n < 5) {
+            return t;
+        }
+        switch (t.charAt(n - 1)) {
+            case 'o', 'a', 'e':
+                return t.substring(0, n - 1);
+            case 's':
+                if (t.charAt(n - 2) == 'e' && t.charAt(n - 3) == 's' && t.charAt(n - 4) == 'e') {
+                    return t.substring(0, n - 2);
+                }
+                if (t.charAt(n - 2) == 'e' && t.charAt(n - 3) == 'c') {
+                    return t.substring(0, n - 3) + "z";
+                }
+                if (t.charAt(n - 2) == 'o' || t.charAt(n - 2) == 'a' || t.charAt(n - 2) == 'e') {
+                    return t.substring(0, n - 2);
+                }
+                return t;
+            default:
+                return t;
+        }
+    }
+}
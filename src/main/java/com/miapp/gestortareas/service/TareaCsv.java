@@ -0,0 +1,115 @@
+package com.miapp.gestortareas.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV según RFC 4180 (separador coma, comillas dobles y "" como escape) para la exportación
+ * e importación de tareas. El lector devuelve un registro cada vez, sin cargar el fichero.
+ */
+final class TareaCsv {
+
+	private TareaCsv() {
+	}
+
+	static void escribirFila(Writer writer, Object... campos) throws IOException {
+		for (int i = 0; i < campos.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			if (campos[i] != null) {
+				escribirCampo(writer, campos[i].toString());
+			}
+		}
+		writer.write("\r\n");
+	}
+
+	private static void escribirCampo(Writer writer, String valor) throws IOException {
+		boolean comillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+			|| valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+		if (!comillas) {
+			writer.write(valor);
+			return;
+		}
+		writer.write('"');
+		writer.write(valor.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	/**
+	 * Lee registros uno a uno. Un campo entre comillas puede contener comas y saltos de línea;
+	 * un registro de más de maxCaracteres se rechaza para que la memoria siga acotada.
+	 */
+	static final class Lector {
+		private final Reader reader;
+		private final int maxCaracteres;
+		private long linea = 1;
+		private long lineaRegistro;
+
+		Lector(Reader reader, int maxCaracteres) {
+			this.reader = reader;
+			this.maxCaracteres = maxCaracteres;
+		}
+
+		/** Línea del fichero en la que empieza el último registro leído. */
+		long lineaRegistro() {
+			return lineaRegistro;
+		}
+
+		/** Siguiente registro, o null al final del fichero. */
+		List<String> siguiente() throws IOException {
+			int c = reader.read();
+			if (c == -1) {
+				return null;
+			}
+			lineaRegistro = linea;
+			List<String> campos = new ArrayList<>();
+			StringBuilder campo = new StringBuilder();
+			boolean entreComillas = false;
+			int leidos = 0;
+			while (true) {
+				if (c == -1) {
+					if (entreComillas) {
+						throw new IllegalArgumentException("Comillas sin cerrar al final del fichero.");
+					}
+					campos.add(campo.toString());
+					return campos;
+				}
+				if (++leidos > maxCaracteres) {
+					throw new IllegalArgumentException("El registro supera " + maxCaracteres + " caracteres.");
+				}
+				if (entreComillas) {
+					if (c == '"') {
+						int d = reader.read();
+						if (d != '"') {
+							entreComillas = false;
+							c = d;
+							continue;
+						}
+						campo.append('"');
+					} else {
+						if (c == '\n') {
+							linea++;
+						}
+						campo.append((char) c);
+					}
+				} else if (c == '"' && campo.length() == 0) {
+					entreComillas = true;
+				} else if (c == ',') {
+					campos.add(campo.toString());
+					campo.setLength(0);
+				} else if (c == '\n') {
+					linea++;
+					campos.add(campo.toString());
+					return campos;
+				} else if (c != '\r') {
+					campo.append((char) c);
+				}
+				c = reader.read();
+			}
+		}
+	}
+}
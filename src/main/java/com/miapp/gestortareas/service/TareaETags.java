@@ -0,0 +1,62 @@
+package com.miapp.gestortareas.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * ETag de las tareas. Una tarea se identifica por su id y su updatedAt en microsegundos,
+ * la precisión con la que se guarda; un listado, por el usuario y la revisión de sus
+ * contadores, que cambia con cada escritura. Ninguno de los dos exige construir los DTO.
+ */
+public final class TareaETags {
+
+	private TareaETags() {
+	}
+
+	public static String deTarea(Long id, Instant updatedAt) {
+		// H2 y MySQL redondean los nanosegundos al guardar TIMESTAMP(6); se replica para que
+		// la entidad recién guardada y la fila leída después den el mismo ETag
+		Instant micros = updatedAt.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+		return "\"" + id + "." + ChronoUnit.MICROS.between(Instant.EPOCH, micros) + "\"";
+	}
+
+	public static String deLista(Long userId, long revision) {
+		return "\"u" + userId + ".r" + revision + "\"";
+	}
+
+	/**
+	 * Comparación débil de If-None-Match: se ignora el prefijo W/ y "*" coincide con cualquiera.
+	 */
+	public static boolean coincideDebil(String cabecera, String etag) {
+		return coincide(cabecera, etag, false);
+	}
+
+	/**
+	 * Comparación fuerte de If-Match: una etiqueta débil nunca coincide.
+	 */
+	public static boolean coincideFuerte(String cabecera, String etag) {
+		return coincide(cabecera, etag, true);
+	}
+
+	private static boolean coincide(String cabecera, String etag, boolean fuerte) {
+		if (cabecera == null) {
+			return false;
+		}
+		for (String candidata : cabecera.split(",")) {
+			candidata = candidata.trim();
+			if (candidata.equals("*")) {
+				return true;
+			}
+			if (candidata.startsWith("W/")) {
+				if (fuerte) {
+					continue;
+				}
+				candidata = candidata.substring(2);
+			}
+			if (candidata.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
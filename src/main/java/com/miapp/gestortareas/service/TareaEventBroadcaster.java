@@ -0,0 +1,441 @@
+package com.miapp.gestortareas.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miapp.gestortareas.DTOs.TareaEvento;
+import com.miapp.gestortareas.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Difunde por SSE los cambios en las tareas de cada usuario a todas sus conexiones abiertas.
+ *
+ * Cada usuario se asigna siempre al mismo "carril" (un hilo con su cola): ahí se numeran
+ * los eventos, se guardan en el historial, se reenvían al reconectar con Last-Event-ID y
+ * se reparten a las conexiones. Así el orden por usuario está garantizado sin bloqueos y
+ * cada evento se serializa una sola vez para todas las conexiones.
+ *
+ * El carril nunca escribe en un socket: cada conexión tiene su propio búfer acotado, que
+ * vacía un pool de escritores con como mucho una tarea por conexión. Un cliente lento solo
+ * retrasa su propio búfer; si este se llena, o un envío supera sse.send-timeout-ms, la
+ * conexión se descarta y el cliente reconecta con Last-Event-ID (recupera lo perdido
+ * del historial o recibe "resync").
+ */
+@Component
+public class TareaEventBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(TareaEventBroadcaster.class);
+
+    /** Evento ya serializado, listo para enviarse a cualquier conexión. */
+    private record Mensaje(long id, String nombre, String json) {
+    }
+
+    /**
+     * Últimos eventos de un usuario. Contiene todos los posteriores a "desde" salvo los
+     * descartados por tamaño, así que un cliente puede reanudar si su último id es
+     * al menos cubreDesde().
+     */
+    private static final class Historial {
+        private final long desde;
+        private final Deque<Mensaje> mensajes = new ArrayDeque<>();
+        private long descartadoHasta;
+
+        Historial(long desde) {
+            this.desde = desde;
+        }
+
+        long cubreDesde() {
+            return Math.max(desde, descartadoHasta);
+        }
+    }
+
+    /**
+     * Una conexión SSE con su búfer de salida. Solo los escritores llaman a send/complete
+     * del emitter (que se sincronizan sobre él): el carril y el latido únicamente encolan.
+     */
+    private final class Conexion {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> pendientes = new ArrayDeque<>();
+        private final AtomicBoolean cerrada = new AtomicBoolean();
+        // Pasa a true en el carril, tras encolar el reenvío inicial
+        private volatile boolean lista;
+        // Inicio del envío en curso (System.nanoTime), 0 si no hay ninguno
+        private volatile long enviandoDesde;
+        private boolean programada;
+        private boolean descartar;
+
+        Conexion(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void encolar(SseEmitter.SseEventBuilder evento) {
+            boolean lleno;
+            synchronized (this) {
+                if (descartar) {
+                    return;
+                }
+                lleno = pendientes.size() >= tamanoBufer;
+                if (!lleno) {
+                    pendientes.addLast(evento);
+                    if (programada) {
+                        return;
+                    }
+                    programada = true;
+                }
+            }
+            if (lleno) {
+                descartarLenta("búfer lleno");
+            } else {
+                escritores.execute(this::vaciar);
+            }
+        }
+
+        // Deja de aceptar eventos y la quita de la lista; el escritor la cierra al terminar
+        private void descartarLenta(String motivo) {
+            synchronized (this) {
+                if (descartar) {
+                    return;
+                }
+                descartar = true;
+                pendientes.clear();
+                if (!programada) {
+                    programada = true;
+                    escritores.execute(this::vaciar);
+                }
+            }
+            descartadas.increment();
+            logger.debug("Conexión SSE del usuario {} descartada: {}", userId, motivo);
+            quitar(this);
+        }
+
+        private void vaciar() {
+            while (true) {
+                SseEmitter.SseEventBuilder evento;
+                boolean completar;
+                synchronized (this) {
+                    completar = descartar;
+                    evento = completar ? null : pendientes.pollFirst();
+                    if (evento == null) {
+                        programada = false;
+                    }
+                }
+                if (completar) {
+                    emitter.complete();
+                    return;
+                }
+                if (evento == null) {
+                    return;
+                }
+                enviandoDesde = System.nanoTime();
+                try {
+                    emitter.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado: onError/onCompletion lo quitan de la lista
+                    synchronized (this) {
+                        descartar = true;
+                        pendientes.clear();
+                        programada = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    enviandoDesde = 0;
+                }
+            }
+        }
+
+        boolean atascada(long ahora) {
+            long desde = enviandoDesde;
+            return desde != 0 && ahora - desde > timeoutEnvioNanos;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int maxConexiones;
+    private final int maxConexionesPorUsuario;
+    private final int tamanoHistorial;
+    private final int tamanoBufer;
+    private final long timeoutEnvioNanos;
+
+    // Ids crecientes también entre reinicios, para detectar un Last-Event-ID de otra ejecución
+    private final AtomicLong secuencia = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicInteger conexiones = new AtomicInteger();
+    // Los conjuntos solo se crean, amplían, reducen y eliminan dentro de compute*: nunca se
+    // añade una conexión a un conjunto que ya no está en el mapa
+    private final Map<Long, Set<Conexion>> suscriptores = new ConcurrentHashMap<>();
+    // Solo se accede desde el carril del usuario
+    private final Cache<Long, Historial> historiales;
+    private final ExecutorService[] carriles;
+    private final ExecutorService escritores;
+    private final Counter descartadas;
+
+    public TareaEventBroadcaster(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${sse.timeout-ms:600000}") long timeoutMs,
+                                 @Value("${sse.max-connections:10000}") int maxConexiones,
+                                 @Value("${sse.max-connections-per-user:20}") int maxConexionesPorUsuario,
+                                 @Value("${sse.history-size:200}") int tamanoHistorial,
+                                 @Value("${sse.lanes:0}") int numCarriles,
+                                 @Value("${sse.lane-queue-capacity:10000}") int capacidadCarril,
+                                 @Value("${sse.connection-buffer:100}") int tamanoBufer,
+                                 @Value("${sse.send-timeout-ms:5000}") long timeoutEnvioMs,
+                                 @Value("${sse.writer-threads:0}") int numEscritores) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.maxConexiones = maxConexiones;
+        this.maxConexionesPorUsuario = maxConexionesPorUsuario;
+        this.tamanoHistorial = tamanoHistorial;
+        this.tamanoBufer = tamanoBufer;
+        this.timeoutEnvioNanos = TimeUnit.MILLISECONDS.toNanos(timeoutEnvioMs);
+        this.historiales = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+
+        int n = numCarriles > 0 ? numCarriles : Runtime.getRuntime().availableProcessors();
+        this.carriles = new ExecutorService[n];
+        AtomicInteger contador = new AtomicInteger();
+        for (int i = 0; i < n; i++) {
+            carriles[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(capacidadCarril),
+                    hilos("sse-", contador),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        // Como mucho una tarea por conexión, así que la cola queda acotada por max-connections.
+        // Un cliente atascado ocupa un escritor hasta el timeout de escritura del socket; por
+        // eso hay varios por núcleo
+        int e = numEscritores > 0 ? numEscritores : Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+        this.escritores = new ThreadPoolExecutor(e, e, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), hilos("sse-write-", new AtomicInteger()));
+        Gauge.builder("sse.connections", conexiones, AtomicInteger::get)
+                .description("Conexiones SSE abiertas")
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("sse.connections.dropped")
+                .description("Conexiones SSE cerradas por ser demasiado lentas (búfer lleno o envío atascado)")
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory hilos(String prefijo, AtomicInteger contador) {
+        return r -> {
+            Thread t = new Thread(r, prefijo + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Abre una conexión para el usuario. Si se indica lastEventId, primero se reenvían los
+     * eventos posteriores; si ya no están en el historial se envía "resync" para que el
+     * cliente recargue la lista. Una conexión nueva recibe "conectado" con el id desde el
+     * que podrá reanudar.
+     */
+    public SseEmitter suscribir(Long userId, String lastEventId) {
+        if (conexiones.incrementAndGet() > maxConexiones) {
+            conexiones.decrementAndGet();
+            throw new ServiceBusyException("Demasiadas conexiones de eventos abiertas. Inténtalo más tarde.", 5);
+        }
+        Conexion conexion = new Conexion(userId, new SseEmitter(timeoutMs));
+        // Se registra ya (sin recibir eventos hasta estar lista) para contar el límite por usuario
+        // dentro de compute
+        AtomicBoolean admitida = new AtomicBoolean();
+        suscriptores.compute(userId, (id, actuales) -> {
+            Set<Conexion> delUsuario = actuales != null ? actuales : ConcurrentHashMap.newKeySet();
+            if (delUsuario.size() < maxConexionesPorUsuario) {
+                delUsuario.add(conexion);
+                admitida.set(true);
+            }
+            return delUsuario.isEmpty() ? null : delUsuario;
+        });
+        if (!admitida.get()) {
+            conexiones.decrementAndGet();
+            throw new ServiceBusyException("Demasiadas conexiones abiertas para este usuario.", 5);
+        }
+
+        SseEmitter emitter = conexion.emitter;
+        Runnable cerrar = () -> quitar(conexion);
+        emitter.onCompletion(cerrar);
+        emitter.onTimeout(cerrar);
+        emitter.onError(e -> cerrar.run());
+
+        Long ultimoId = parsearId(lastEventId);
+        enCarril(userId, () -> {
+            reenviar(userId, conexion, ultimoId);
+            // Lista después del reenvío y en el carril: ningún evento llega desordenado
+            conexion.lista = true;
+        });
+        return emitter;
+    }
+
+    /**
+     * Publica un evento para las conexiones del usuario cuando la transacción en curso
+     * se confirma; si se deshace, no se envía nada.
+     */
+    public void publicar(Long userId, Supplier<TareaEvento> evento) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    difundir(userId, evento.get());
+                }
+            });
+        } else {
+            difundir(userId, evento.get());
+        }
+    }
+
+    private void difundir(Long userId, TareaEvento evento) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            logger.error("No se pudo serializar el evento de tarea: {}", e.getMessage());
+            return;
+        }
+        enCarril(userId, () -> {
+            Mensaje mensaje = new Mensaje(secuencia.incrementAndGet(), "tarea", json);
+            Historial historial = historiales.get(userId, id -> new Historial(mensaje.id() - 1));
+            historial.mensajes.addLast(mensaje);
+            while (historial.mensajes.size() > tamanoHistorial) {
+                historial.descartadoHasta = historial.mensajes.removeFirst().id();
+            }
+            enviarATodos(userId, mensaje);
+        });
+    }
+
+    // Comentario periódico: mantiene viva la conexión a través de proxies y detecta clientes caídos
+    // o atascados. Solo encola: no pasa por los carriles ni escribe en ningún socket
+    @Scheduled(fixedRateString = "${sse.heartbeat-ms:15000}")
+    public void latido() {
+        long ahora = System.nanoTime();
+        suscriptores.forEach((userId, delUsuario) -> {
+            historiales.getIfPresent(userId); // Mantiene el historial mientras haya conexiones
+            for (Conexion conexion : delUsuario) {
+                if (conexion.atascada(ahora)) {
+                    conexion.descartarLenta("envío atascado");
+                } else if (conexion.lista) {
+                    conexion.encolar(SseEmitter.event().comment("ping"));
+                }
+            }
+        });
+    }
+
+    public int conexionesAbiertas() {
+        return conexiones.get();
+    }
+
+    private void reenviar(Long userId, Conexion conexion, Long ultimoId) {
+        Historial historial = historiales.getIfPresent(userId);
+        if (ultimoId != null && historial != null
+                && ultimoId >= historial.cubreDesde() && ultimoId <= secuencia.get()) {
+            for (Mensaje mensaje : historial.mensajes) {
+                if (mensaje.id() > ultimoId) {
+                    conexion.encolar(construir(mensaje));
+                }
+            }
+            return;
+        }
+        if (historial == null) {
+            historial = new Historial(secuencia.get());
+            historiales.put(userId, historial);
+        }
+        String nombre = ultimoId == null ? "conectado" : "resync";
+        long id = Math.max(historial.cubreDesde(), historial.mensajes.isEmpty() ? 0 : historial.mensajes.peekLast().id());
+        conexion.encolar(SseEmitter.event().id(String.valueOf(id)).name(nombre).data("{}"));
+    }
+
+    private void enviarATodos(Long userId, Mensaje mensaje) {
+        Set<Conexion> delUsuario = suscriptores.get(userId);
+        if (delUsuario == null) {
+            return;
+        }
+        for (Conexion conexion : delUsuario) {
+            if (conexion.lista) {
+                conexion.encolar(construir(mensaje));
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder construir(Mensaje mensaje) {
+        return SseEmitter.event().id(String.valueOf(mensaje.id())).name(mensaje.nombre()).data(mensaje.json());
+    }
+
+    // Idempotente: la llaman los callbacks del emitter y el descarte por lentitud
+    private void quitar(Conexion conexion) {
+        if (!conexion.cerrada.compareAndSet(false, true)) {
+            return;
+        }
+        conexiones.decrementAndGet();
+        suscriptores.computeIfPresent(conexion.userId, (id, delUsuario) -> {
+            delUsuario.remove(conexion);
+            return delUsuario.isEmpty() ? null : delUsuario;
+        });
+    }
+
+    private void enCarril(Long userId, Runnable tarea) {
+        try {
+            carriles[Math.floorMod(userId.hashCode(), carriles.length)].execute(tarea);
+        } catch (RejectedExecutionException e) {
+            // Carril saturado: el evento rechazado no tiene id ni está en el historial. Se consume
+            // un id para él y el historial pasa a cubrir solo desde ahí, de modo que reanudar con
+            // un Last-Event-ID anterior recibe "resync" en lugar de saltarse el cambio perdido
+            logger.warn("Cola SSE llena; se cierran las conexiones del usuario {}", userId);
+            historiales.put(userId, new Historial(secuencia.incrementAndGet()));
+            List.copyOf(suscriptores.getOrDefault(userId, Set.of()))
+                    .forEach(conexion -> conexion.descartarLenta("carril lleno"));
+        }
+    }
+
+    private Long parsearId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0L; // Id desconocido: provoca "resync"
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        suscriptores.values().forEach(delUsuario -> List.copyOf(delUsuario).forEach(conexion -> conexion.emitter.complete()));
+        for (ExecutorService carril : carriles) {
+            carril.shutdown();
+        }
+        escritores.shutdown();
+    }
+}
@@ -0,0 +1,260 @@
+package com.miapp.gestortareas.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.miapp.gestortareas.model.TareaModel;
+import com.miapp.gestortareas.repository.TareaRepository;
+import com.miapp.gestortareas.repository.TareaRepository.TextoTarea;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Índice invertido en memoria, uno por usuario, sobre el título y la descripción de sus tareas.
+ * Se construye desde la BD en la primera búsqueda del usuario y después TareaService lo
+ * mantiene de forma incremental; los cambios se aplican tras el commit, igual que en
+ * TokenVersionCache. Los índices poco usados se descartan y se reconstruyen al volver a buscar.
+ */
+@Component
+public class TareaSearchIndex {
+
+    private static final int PESO_TITULO = 3;
+    private static final int PESO_DESCRIPCION = 1;
+    // Una coincidencia por prefijo puntúa menos que la palabra completa
+    private static final double FACTOR_PREFIJO = 0.7;
+    // Límite de términos a los que se expande un prefijo corto ("a" → ...)
+    private static final int MAX_EXPANSIONES = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final LoadingCache<Long, IndiceUsuario> indices;
+
+    public TareaSearchIndex(TareaRepository tareaRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${search.index.max-documents:1000000}") long maxDocumentos,
+                            @Value("${search.index.expire-after-access-minutes:30}") long expiraMinutos) {
+        this.indices = Caffeine.newBuilder()
+                .maximumWeight(maxDocumentos)
+                .weigher((Long userId, IndiceUsuario indice) -> Math.max(1, indice.documentos()))
+                .expireAfterAccess(Duration.ofMinutes(expiraMinutos))
+                .recordStats()
+                .build(userId -> construir(tareaRepository.findTextosByUsuarioId(userId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, indices, "tarea-search-index");
+    }
+
+    private static IndiceUsuario construir(List<TextoTarea> textos) {
+        IndiceUsuario indice = new IndiceUsuario();
+        for (TextoTarea texto : textos) {
+            indice.agregar(texto.getId(), texto.getTitulo(), texto.getDescripcion());
+        }
+        return indice;
+    }
+
+    /**
+     * Ids de las tareas del usuario que contienen todos los términos de la consulta
+     * (completos o como prefijo), ordenados por relevancia (BM25).
+     */
+    public List<Long> buscar(Long userId, String consulta, int limite) {
+        List<String> terminos = SpanishAnalyzer.terminos(consulta).stream().distinct().toList();
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        return indices.get(userId).buscar(terminos, limite);
+    }
+
+    public void indexar(Long userId, Long id, String titulo, String descripcion) {
+        alConfirmar(userId, indice -> indice.agregar(id, titulo, descripcion));
+    }
+
+    /** Añade varias tareas con un solo cambio tras el commit (p. ej. un bloque de una importación). */
+    public void indexarTodas(Long userId, List<TareaModel> tareas) {
+        // Se copian ya los textos: tras el commit las entidades pueden estar desconectadas
+        List<Texto> textos = tareas.stream()
+                .map(t -> new Texto(t.getId(), t.getTitulo(), t.getDescripcion()))
+                .toList();
+        alConfirmar(userId, indice -> textos.forEach(t -> indice.agregar(t.id(), t.titulo(), t.descripcion())));
+    }
+
+    public void eliminar(Long userId, Collection<Long> ids) {
+        alConfirmar(userId, indice -> ids.forEach(indice::eliminar));
+    }
+
+    /** Descarta el índice del usuario (p. ej. al borrar todas sus tareas). */
+    public void invalidar(Long userId) {
+        indices.invalidate(userId);
+        despuesDelCommit(() -> indices.invalidate(userId));
+    }
+
+    private void alConfirmar(Long userId, Consumer<IndiceUsuario> cambio) {
+        despuesDelCommit(() -> {
+            // El cambio se aplica dentro de computeIfPresent para que Caffeine vuelva a pesar la
+            // entrada: el weigher solo se evalúa al guardar, no al modificar el índice en sitio
+            IndiceUsuario indice = indices.asMap().computeIfPresent(userId, (id, actual) -> {
+                cambio.accept(actual);
+                return actual;
+            });
+            if (indice == null) {
+                // Si se está construyendo, invalidate espera a que termine y lo descarta:
+                // pudo leer la BD antes de este commit
+                indices.invalidate(userId);
+            }
+        });
+    }
+
+    private static void despuesDelCommit(Runnable aplicar) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+
+    private record Texto(Long id, String titulo, String descripcion) {
+    }
+
+    /** Términos (con frecuencia ponderada) y longitud de una tarea indexada. */
+    private record Documento(Map<String, Integer> terminos, int longitud) {
+    }
+
+    private static final class IndiceUsuario {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Documento> documentos = new HashMap<>();
+        // término → (id de tarea → frecuencia ponderada); ordenado para buscar por prefijo
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private long longitudTotal;
+
+        int documentos() {
+            lock.readLock().lock();
+            try {
+                return documentos.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void agregar(Long id, String titulo, String descripcion) {
+            Map<String, Integer> terminos = new HashMap<>();
+            SpanishAnalyzer.terminos(titulo).forEach(t -> terminos.merge(t, PESO_TITULO, Integer::sum));
+            SpanishAnalyzer.terminos(descripcion).forEach(t -> terminos.merge(t, PESO_DESCRIPCION, Integer::sum));
+            int longitud = terminos.values().stream().mapToInt(Integer::intValue).sum();
+
+            lock.writeLock().lock();
+            try {
+                quitar(id);
+                documentos.put(id, new Documento(terminos, longitud));
+                terminos.forEach((termino, tf) -> postings.computeIfAbsent(termino, t -> new HashMap<>()).put(id, tf));
+                longitudTotal += longitud;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void eliminar(Long id) {
+            lock.writeLock().lock();
+            try {
+                quitar(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void quitar(Long id) {
+            Documento anterior = documentos.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            longitudTotal -= anterior.longitud();
+            for (String termino : anterior.terminos().keySet()) {
+                Map<Long, Integer> lista = postings.get(termino);
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+
+        List<Long> buscar(List<String> terminos, int limite) {
+            lock.readLock().lock();
+            try {
+                int n = documentos.size();
+                if (n == 0) {
+                    return List.of();
+                }
+                double longitudMedia = (double) longitudTotal / n;
+
+                // Puntuación de cada término de la consulta; se exige que la tarea los contenga todos
+                Map<Long, Double> acumulado = null;
+                for (String termino : terminos) {
+                    Map<Long, Double> parcial = puntuar(termino, n, longitudMedia);
+                    if (acumulado == null) {
+                        acumulado = parcial;
+                    } else {
+                        Map<Long, Double> interseccion = new HashMap<>();
+                        for (Map.Entry<Long, Double> e : acumulado.entrySet()) {
+                            Double s = parcial.get(e.getKey());
+                            if (s != null) {
+                                interseccion.put(e.getKey(), e.getValue() + s);
+                            }
+                        }
+                        acumulado = interseccion;
+                    }
+                    if (acumulado.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                List<Map.Entry<Long, Double>> resultados = new ArrayList<>(acumulado.entrySet());
+                resultados.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+                return resultados.stream().limit(limite).map(Map.Entry::getKey).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Mejor puntuación de cada tarea entre el término exacto y sus expansiones por prefijo
+        private Map<Long, Double> puntuar(String termino, int n, double longitudMedia) {
+            Map<Long, Double> puntuaciones = new HashMap<>();
+            int expansiones = 0;
+            for (Map.Entry<String, Map<Long, Integer>> entrada
+                    : postings.subMap(termino, true, termino + Character.MAX_VALUE, false).entrySet()) {
+                if (expansiones++ == MAX_EXPANSIONES) {
+                    break;
+                }
+                double factor = entrada.getKey().equals(termino) ? 1.0 : FACTOR_PREFIJO;
+                Map<Long, Integer> lista = entrada.getValue();
+                double idf = Math.log(1 + (n - lista.size() + 0.5) / (lista.size() + 0.5));
+                for (Map.Entry<Long, Integer> e : lista.entrySet()) {
+                    int tf = e.getValue();
+                    int longitud = documentos.get(e.getKey()).longitud();
+                    double s = factor * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * longitud / longitudMedia));
+                    puntuaciones.merge(e.getKey(), s, Math::max);
+                }
+            }
+            return puntuaciones;
+        }
+    }
+}
@@ -1,69 +1,441 @@
 package com.miapp.gestortareas.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.miapp.gestortareas.DTOs.BatchEstadoRequest;
+import com.miapp.gestortareas.DTOs.BatchItemResult;
+import com.miapp.gestortareas.DTOs.BatchResponse;
 import com.miapp.gestortareas.DTOs.CreateTareaRequest;
+import com.miapp.gestortareas.DTOs.CursorPageResponse;
+import com.miapp.gestortareas.DTOs.EstadoTareaResponse;
+import com.miapp.gestortareas.DTOs.TareaEvento;
+import com.miapp.gestortareas.DTOs.TareaFiltro;
+import com.miapp.gestortareas.DTOs.TareaImportRow;
 import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.DTOs.TareaStatsResponse;
 import com.miapp.gestortareas.DTOs.UpdateTareaRequest;
+import com.miapp.gestortareas.config.ReadOnlyTransactional;
+import com.miapp.gestortareas.exception.ConcurrentUpdateException;
+import com.miapp.gestortareas.exception.PreconditionFailedException;
 import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.TareaContadoresModel;
 import com.miapp.gestortareas.model.TareaModel;
 import com.miapp.gestortareas.model.UserModel;
 import com.miapp.gestortareas.repository.TareaRepository;
+import com.miapp.gestortareas.repository.TareaRepository.ClasificacionTarea;
+import com.miapp.gestortareas.repository.TareaSpecifications;
 import com.miapp.gestortareas.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class TareaService {
+	private static final int MAX_CURSOR_PAGE_SIZE = 100;
+	private static final int MAX_BATCH_SIZE = 500;
+	private static final int MAX_SEARCH_RESULTS = 100;
+
     private final TareaRepository tareaRepository;
     private final UserRepository userRepository;
+    private final Validator validator;
+    private final TareaSearchIndex searchIndex;
+    private final TareaStatsService statsService;
+    private final TareaEventBroadcaster eventBroadcaster;
 
     @Transactional
-    public TareaResponse crear(String email, CreateTareaRequest req) {
-		UserModel userModel = userRepository.findByEmail(email).orElseThrow();
+    public TareaResponse crear(Long userId, CreateTareaRequest req) {
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		// Referencia perezosa: no se consulta la tabla de usuarios para asignar el dueño
+		UserModel userModel = userRepository.getReferenceById(userId);
 		TareaModel tareaModel = TareaModel.builder()
 			.titulo(req.getTitulo())
 			.descripcion(req.getDescripcion())
 			.estado(Estado.PENDIENTE)
 			.prioridad(req.getPrioridad())
 			.fechaVencimiento(req.getFechaVencimiento())
-			.usuario(userModel).build();
-		tareaRepository.save(tareaModel);
-		return map(tareaModel);
+			.usuario(userModel).usuarioId(userId).build();
+		// Con ids por secuencia el INSERT se difiere hasta el flush; se fuerza aquí para que
+		// createdAt/updatedAt estén generados al construir la respuesta
+		tareaRepository.saveAndFlush(tareaModel);
+		contadores.sumar(tareaModel.getEstado(), tareaModel.getPrioridad(), 1);
+		searchIndex.indexar(userId, tareaModel.getId(), tareaModel.getTitulo(), tareaModel.getDescripcion());
+		TareaResponse creada = map(tareaModel);
+		eventBroadcaster.publicar(userId, () -> TareaEvento.creada(creada));
+		return creada;
 	}
 
-	public Page<TareaResponse> listar(String email, Pageable pageable) {
-		UserModel userModel = userRepository.findByEmail(email).orElseThrow();
-		return tareaRepository.findByUsuario(userModel, pageable).map(this::map);
+	/**
+	 * Crea varias tareas en una sola transacción. Los elementos inválidos se informan
+	 * en su resultado y no impiden crear el resto; los válidos se insertan en lotes JDBC.
+	 */
+	@Transactional
+	public BatchResponse crearLote(Long userId, List<CreateTareaRequest> reqs) {
+		validarTamanoLote(reqs);
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		UserModel userModel = userRepository.getReferenceById(userId);
+		BatchItemResult[] resultados = new BatchItemResult[reqs.size()];
+		List<TareaModel> nuevas = new ArrayList<>();
+		List<Integer> indices = new ArrayList<>();
+
+		for (int i = 0; i < reqs.size(); i++) {
+			CreateTareaRequest req = reqs.get(i);
+			String error = validar(req);
+			if (error != null) {
+				resultados[i] = BatchItemResult.error(i, null, 400, error);
+				continue;
+			}
+			nuevas.add(TareaModel.builder()
+				.titulo(req.getTitulo())
+				.descripcion(req.getDescripcion())
+				.estado(Estado.PENDIENTE)
+				.prioridad(req.getPrioridad())
+				.fechaVencimiento(req.getFechaVencimiento())
+				.usuario(userModel).usuarioId(userId).build());
+			indices.add(i);
+		}
+
+		tareaRepository.saveAll(nuevas);
+		for (int j = 0; j < nuevas.size(); j++) {
+			int i = indices.get(j);
+			TareaModel nueva = nuevas.get(j);
+			resultados[i] = BatchItemResult.ok(i, nueva.getId(), 201);
+			contadores.sumar(nueva.getEstado(), nueva.getPrioridad(), 1);
+			searchIndex.indexar(userId, nueva.getId(), nueva.getTitulo(), nueva.getDescripcion());
+			// Se construye tras el commit, cuando ya están generados createdAt/updatedAt
+			eventBroadcaster.publicar(userId, () -> TareaEvento.creada(map(nueva)));
+		}
+		return new BatchResponse(Arrays.asList(resultados));
 	}
 
+	/**
+	 * Inserta un bloque de una importación (TareaTransferService) en una transacción, en lotes
+	 * JDBC. Las filas llegan ya validadas; devuelve los ids en el mismo orden. El bloque se
+	 * notifica con un único evento IMPORTADAS y una sola actualización del índice de búsqueda:
+	 * un evento por fila llenaría el carril SSE del usuario en las importaciones grandes.
+	 */
 	@Transactional
-	public TareaResponse actualizarEstado(String email, Long id, Estado nuevo) {
-		UserModel userModel = userRepository.findByEmail(email).orElseThrow();
-		TareaModel tareaModel = tareaRepository.findById(id).orElseThrow();
-		if (!tareaModel.getUsuario().getId().equals(userModel.getId())) {
-			throw new AccessDeniedException("No autorizado para modificar esta tarea");
+	public List<Long> importarLote(Long userId, List<TareaImportRow> filas) {
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		UserModel userModel = userRepository.getReferenceById(userId);
+		List<TareaModel> nuevas = new ArrayList<>(filas.size());
+		for (TareaImportRow fila : filas) {
+			nuevas.add(TareaModel.builder()
+				.titulo(fila.getTitulo())
+				.descripcion(fila.getDescripcion())
+				.estado(fila.getEstado() != null ? fila.getEstado() : Estado.PENDIENTE)
+				.prioridad(fila.getPrioridad())
+				.fechaVencimiento(fila.getFechaVencimiento())
+				.usuario(userModel).usuarioId(userId).build());
+		}
+
+		tareaRepository.saveAll(nuevas);
+		List<Long> ids = new ArrayList<>(nuevas.size());
+		for (TareaModel nueva : nuevas) {
+			ids.add(nueva.getId());
+			contadores.sumar(nueva.getEstado(), nueva.getPrioridad(), 1);
+		}
+		searchIndex.indexarTodas(userId, nuevas);
+		eventBroadcaster.publicar(userId, () -> TareaEvento.importadas(nuevas.size()));
+		return ids;
+	}
+
+	/**
+	 * Cambia el estado de varias tareas del usuario con una sentencia UPDATE por cada estado destino.
+	 */
+	@Transactional
+	public BatchResponse actualizarEstadoLote(Long userId, List<BatchEstadoRequest> reqs) {
+		validarTamanoLote(reqs);
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		Map<Long, ClasificacionTarea> propias = clasificacionesPropias(userId, reqs.stream()
+			.filter(Objects::nonNull).map(BatchEstadoRequest::getId).toList());
+
+		BatchItemResult[] resultados = new BatchItemResult[reqs.size()];
+		Map<Estado, List<Long>> porEstado = new EnumMap<>(Estado.class);
+		Set<Long> vistos = new HashSet<>();
+		for (int i = 0; i < reqs.size(); i++) {
+			BatchEstadoRequest req = reqs.get(i);
+			String error = validar(req);
+			if (error != null) {
+				resultados[i] = BatchItemResult.error(i, req == null ? null : req.getId(), 400, error);
+			} else if (!vistos.add(req.getId())) {
+				resultados[i] = BatchItemResult.error(i, req.getId(), 400, "La tarea aparece más de una vez en el lote.");
+			} else if (!propias.containsKey(req.getId())) {
+				resultados[i] = BatchItemResult.error(i, req.getId(), 404, "Tarea no encontrada.");
+			} else {
+				porEstado.computeIfAbsent(req.getEstado(), e -> new ArrayList<>()).add(req.getId());
+				contadores.sumarEstado(propias.get(req.getId()).getEstado(), -1);
+				contadores.sumarEstado(req.getEstado(), 1);
+				resultados[i] = BatchItemResult.ok(i, req.getId(), 200);
+			}
+		}
+
+		Instant ahora = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		porEstado.forEach((estado, ids) -> {
+			tareaRepository.actualizarEstadoEnLote(userId, ids, estado, ahora);
+			ids.forEach(id -> eventBroadcaster.publicar(userId, () -> TareaEvento.estado(id, estado, ahora)));
+		});
+		return new BatchResponse(Arrays.asList(resultados));
+	}
+
+	/**
+	 * Elimina varias tareas del usuario con una única sentencia DELETE.
+	 */
+	@Transactional
+	public BatchResponse eliminarLote(Long userId, List<Long> ids) {
+		validarTamanoLote(ids);
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		Map<Long, ClasificacionTarea> propias = clasificacionesPropias(userId, ids);
+
+		List<BatchItemResult> resultados = new ArrayList<>(ids.size());
+		Set<Long> aEliminar = new HashSet<>();
+		Set<Long> vistos = new HashSet<>();
+		for (int i = 0; i < ids.size(); i++) {
+			Long id = ids.get(i);
+			if (id == null) {
+				resultados.add(BatchItemResult.error(i, null, 400, "El id de la tarea no puede ser nulo"));
+			} else if (!vistos.add(id)) {
+				resultados.add(BatchItemResult.error(i, id, 400, "La tarea aparece más de una vez en el lote."));
+			} else if (!propias.containsKey(id)) {
+				resultados.add(BatchItemResult.error(i, id, 404, "Tarea no encontrada."));
+			} else {
+				aEliminar.add(id);
+				ClasificacionTarea eliminada = propias.get(id);
+				contadores.sumar(eliminada.getEstado(), eliminada.getPrioridad(), -1);
+				resultados.add(BatchItemResult.ok(i, id, 204));
+			}
+		}
+
+		if (!aEliminar.isEmpty()) {
+			tareaRepository.deleteByUsuarioIdAndIdIn(userId, aEliminar);
+			searchIndex.eliminar(userId, aEliminar);
+			aEliminar.forEach(id -> eventBroadcaster.publicar(userId, () -> TareaEvento.eliminada(id)));
+		}
+		return new BatchResponse(resultados);
+	}
+
+	private void validarTamanoLote(List<?> items) {
+		if (items == null || items.isEmpty()) {
+			throw new IllegalArgumentException("El lote no puede estar vacío.");
+		}
+		if (items.size() > MAX_BATCH_SIZE) {
+			throw new IllegalArgumentException("El lote no puede superar " + MAX_BATCH_SIZE + " elementos.");
+		}
+	}
+
+	// Tareas del lote que pertenecen al usuario, con su estado y prioridad actuales
+	private Map<Long, ClasificacionTarea> clasificacionesPropias(Long userId, List<Long> ids) {
+		List<Long> noNulos = ids.stream().filter(Objects::nonNull).distinct().toList();
+		if (noNulos.isEmpty()) {
+			return Map.of();
+		}
+		return tareaRepository.findClasificacionesByUsuarioIdAndIdIn(userId, noNulos).stream()
+			.collect(Collectors.toMap(ClasificacionTarea::getId, c -> c));
+	}
+
+	// Valida un elemento del lote con las mismas anotaciones que los endpoints individuales
+	private String validar(Object item) {
+		if (item == null) {
+			return "El elemento no puede ser nulo.";
+		}
+		Set<ConstraintViolation<Object>> violaciones = validator.validate(item);
+		if (violaciones.isEmpty()) {
+			return null;
+		}
+		return violaciones.stream()
+			.map(v -> v.getPropertyPath() + ": " + v.getMessage())
+			.sorted()
+			.collect(Collectors.joining("; "));
+	}
+
+	public TareaStatsResponse estadisticas(Long userId) {
+		return statsService.obtener(userId);
+	}
+
+	public int reconstruirEstadisticas() {
+		return statsService.reconstruirTodos();
+	}
+
+	@ReadOnlyTransactional
+	public Page<TareaResponse> listar(Long userId, Pageable pageable) {
+		// Proyección directa a DTO: no se hidratan entidades para construir la página
+		return tareaRepository.findResponsesByUsuarioId(userId, pageable);
+	}
+
+	/**
+	 * Lista las tareas del usuario aplicando solo los filtros indicados.
+	 */
+	@ReadOnlyTransactional
+	public Page<TareaResponse> listar(Long userId, TareaFiltro filtro, Pageable pageable) {
+		if (filtro == null || filtro.estaVacio()) {
+			return listar(userId, pageable);
+		}
+		validarRango(filtro.getVenceDesde(), filtro.getVenceHasta(), "venceDesde", "venceHasta");
+		validarRango(filtro.getCreadaDesde(), filtro.getCreadaHasta(), "creadaDesde", "creadaHasta");
+		validarRango(filtro.getActualizadaDesde(), filtro.getActualizadaHasta(), "actualizadaDesde", "actualizadaHasta");
+		Specification<TareaModel> spec = TareaSpecifications.delUsuario(userId).and(TareaSpecifications.conFiltro(filtro));
+		return tareaRepository.findResponses(spec, pageable);
+	}
+
+	private <T extends Comparable<? super T>> void validarRango(T desde, T hasta, String nombreDesde, String nombreHasta) {
+		if (desde != null && hasta != null && desde.compareTo(hasta) > 0) {
+			throw new IllegalArgumentException(nombreDesde + " no puede ser posterior a " + nombreHasta + ".");
+		}
+	}
+
+	/**
+	 * Busca en el título y la descripción de las tareas del usuario y las devuelve por relevancia.
+	 * Todos los términos deben aparecer, completos o como prefijo ("reun" encuentra "reuniones").
+	 */
+	public List<TareaResponse> buscar(Long userId, String q, int size) {
+		if (q == null || q.isBlank()) {
+			throw new IllegalArgumentException("El parámetro q no puede estar vacío.");
+		}
+		int limite = Math.max(1, Math.min(size, MAX_SEARCH_RESULTS));
+		List<Long> ids = searchIndex.buscar(userId, q, limite);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, TareaResponse> porId = tareaRepository.findResponsesByUsuarioIdAndIdIn(userId, ids).stream()
+			.collect(Collectors.toMap(TareaResponse::getId, t -> t));
+		// Se conserva el orden de relevancia del índice
+		return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+	}
+
+	/**
+	 * Lista las tareas del usuario por cursor (keyset) sobre (createdAt, id).
+	 * Cada página cuesta lo mismo sin importar su profundidad y no se ejecuta COUNT.
+	 * Se pide un elemento extra para saber si existe una página siguiente.
+	 */
+	@ReadOnlyTransactional
+	public CursorPageResponse<TareaResponse> listarPorCursor(Long userId, String cursor, int size) {
+		int limite = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+		Pageable pageable = PageRequest.of(0, limite + 1);
+
+		List<TareaResponse> tareas;
+		if (cursor == null || cursor.isBlank()) {
+			tareas = tareaRepository.findFirstPage(userId, pageable);
+		} else {
+			String[] partes = decodificarCursor(cursor);
+			tareas = tareaRepository.findPageAfter(userId, Instant.parse(partes[0]), Long.valueOf(partes[1]), pageable);
+		}
+
+		boolean hasNext = tareas.size() > limite;
+		if (hasNext) {
+			tareas = tareas.subList(0, limite);
+		}
+		String nextCursor = hasNext ? codificarCursor(tareas.get(tareas.size() - 1)) : null;
+		return new CursorPageResponse<>(tareas, nextCursor, hasNext);
+	}
+
+	private String codificarCursor(TareaResponse ultima) {
+		String valor = ultima.getCreatedAt() + "|" + ultima.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String[] decodificarCursor(String cursor) {
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] partes = valor.split("\\|");
+			if (partes.length != 2) {
+				throw new IllegalArgumentException("Cursor inválido.");
+			}
+			Instant.parse(partes[0]);
+			Long.parseLong(partes[1]);
+			return partes;
+		} catch (DateTimeParseException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Cursor inválido.");
+		}
+	}
+
+	/**
+	 * ETag actual de una tarea, leyendo solo su updatedAt.
+	 */
+	@ReadOnlyTransactional
+	public String etagTarea(Long userId, Long id) {
+		return tareaRepository.findUpdatedAtByIdAndUsuarioId(id, userId)
+			.map(updatedAt -> TareaETags.deTarea(id, updatedAt))
+			.orElseThrow(() -> new NoSuchElementException("Tarea no encontrada."));
+	}
+
+	/**
+	 * ETag de cualquier listado de tareas del usuario: cambia con cada escritura suya.
+	 */
+	@ReadOnlyTransactional
+	public String etagLista(Long userId) {
+		return TareaETags.deLista(userId, statsService.revision(userId));
+	}
+
+	// If-Match se comprueba con los contadores bloqueados: nadie puede cambiar la tarea hasta el commit
+	private void comprobarIfMatch(String ifMatch, Long id, Instant updatedAt) {
+		if (ifMatch != null && !TareaETags.coincideFuerte(ifMatch, TareaETags.deTarea(id, updatedAt))) {
+			throw new PreconditionFailedException("La tarea cambió desde la versión indicada en If-Match. Vuelve a cargarla e inténtalo de nuevo.");
 		}
-		tareaModel.setEstado(nuevo);
-		tareaModel.setUpdatedAt(Instant.now());
-		return map(tareaModel);
 	}
 
+	/**
+	 * Cambia el estado con una sentencia UPDATE acotada al dueño, sin cargar la tarea.
+	 * Si se indica expectedUpdatedAt, solo se aplica si la tarea no cambió desde entonces;
+	 * si se indica ifMatch, solo si la tarea conserva alguno de esos ETag.
+	 */
 	@Transactional
-	public TareaResponse actualizar(String email, Long id, UpdateTareaRequest req) {
-		UserModel userModel = userRepository.findByEmail(email).orElseThrow();
-		TareaModel tareaModel = tareaRepository.findById(id).orElseThrow();
+	public EstadoTareaResponse actualizarEstado(Long userId, Long id, Estado nuevo, Instant expectedUpdatedAt, String ifMatch) {
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		ClasificacionTarea actual = tareaRepository.findClasificacionByIdAndUsuarioId(id, userId)
+			.orElseThrow(() -> new NoSuchElementException("Tarea no encontrada."));
+		comprobarIfMatch(ifMatch, id, actual.getUpdatedAt());
+		// La BD guarda microsegundos: se escribe ya truncado para que el valor devuelto sea exacto
+		Instant ahora = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		int filas = expectedUpdatedAt == null
+			? tareaRepository.actualizarEstado(id, userId, nuevo, ahora)
+			: tareaRepository.actualizarEstadoSiNoModificada(id, userId, nuevo, ahora, redondearAMicros(expectedUpdatedAt));
 
-		if (!tareaModel.getUsuario().getId().equals(userModel.getId())) {
-			throw new AccessDeniedException("No autorizado para actualizar esta tarea");
+		if (filas == 0) {
+			// La tarea existe y nadie más puede tocarla mientras se tienen los contadores bloqueados
+			throw new ConcurrentUpdateException("La tarea fue modificada por otra petición. Vuelve a cargarla e inténtalo de nuevo.");
 		}
+		contadores.sumarEstado(actual.getEstado(), -1);
+		contadores.sumarEstado(nuevo, 1);
+		eventBroadcaster.publicar(userId, () -> TareaEvento.estado(id, nuevo, ahora));
+		return new EstadoTareaResponse(id, nuevo, ahora);
+	}
+
+	// H2 y MySQL redondean los nanosegundos al guardar TIMESTAMP(6); se replica para comparar
+	private Instant redondearAMicros(Instant instant) {
+		return instant.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+	}
+
+	@Transactional
+	public TareaResponse actualizar(Long userId, Long id, UpdateTareaRequest req, String ifMatch) {
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		// Se lee de la BD y no de la caché de segundo nivel: If-Match y el ajuste de contadores
+		// necesitan la versión actual. Una tarea ajena se trata como inexistente
+		TareaModel tareaModel = tareaRepository.findByIdAndUsuarioId(id, userId).orElseThrow();
+		comprobarIfMatch(ifMatch, id, tareaModel.getUpdatedAt());
+		contadores.sumarPrioridad(tareaModel.getPrioridad(), -1);
+		contadores.sumarPrioridad(req.getPrioridad(), 1);
 
 		// Actualizamos todos los campos del recurso con los datos del DTO
 		tareaModel.setTitulo(req.getTitulo());
@@ -71,22 +443,21 @@ public class TareaService {
 		tareaModel.setPrioridad(req.getPrioridad());
 		tareaModel.setFechaVencimiento(req.getFechaVencimiento());
 
-		return map(tareaRepository.save(tareaModel));
+		// El flush genera el nuevo updatedAt antes de construir la respuesta y su ETag
+		TareaModel guardada = tareaRepository.saveAndFlush(tareaModel);
+		searchIndex.indexar(userId, id, guardada.getTitulo(), guardada.getDescripcion());
+		eventBroadcaster.publicar(userId, () -> TareaEvento.actualizada(map(guardada)));
+		return map(guardada);
 	}
 
-	public TareaResponse obtenerPorId(String email, Long id) {
-		UserModel userModel = userRepository.findByEmail(email).orElseThrow();
-		TareaModel tareaModel = tareaRepository.findById(id).orElseThrow();
-
-		// Verifica que el usuario que solicita la tarea sea el dueño
-		if (!tareaModel.getUsuario().getId().equals(userModel.getId())) {
-			throw new AccessDeniedException("No autorizado para ver esta tarea");
-		}
-
-		return map(tareaModel);
+	@ReadOnlyTransactional
+	public TareaResponse obtenerPorId(Long userId, Long id) {
+		// La consulta filtra por dueño: una tarea ajena se trata como inexistente
+		return tareaRepository.findResponseByIdAndUsuarioId(id, userId).orElseThrow();
 	}
 
-	private TareaResponse map(TareaModel t) {
+	// Visible en el paquete para los benchmarks JMH (src/jmh/java)
+	TareaResponse map(TareaModel t) {
 		return TareaResponse.builder()
 			.id(t.getId()).titulo(t.getTitulo()).descripcion(t.getDescripcion())
 			.estado(t.getEstado()).prioridad(t.getPrioridad())
@@ -97,13 +468,14 @@ public class TareaService {
 	}
     
 	@Transactional
-	public void eliminar(String email, Long id) {
-		UserModel userModel = userRepository.findByEmail(email).orElseThrow();
-		TareaModel tareaModel = tareaRepository.findById(id).orElseThrow();
-
-		if (!tareaModel.getUsuario().getId().equals(userModel.getId())) {
-			throw new AccessDeniedException("No autorizado para eliminar esta tarea");
-		}
-		tareaRepository.delete(tareaModel);
+	public void eliminar(Long userId, Long id) {
+		TareaContadoresModel contadores = statsService.bloquear(userId);
+		ClasificacionTarea tarea = tareaRepository.findClasificacionByIdAndUsuarioId(id, userId)
+			.orElseThrow(() -> new NoSuchElementException("Tarea no encontrada."));
+		// Borrado sin cargar la entidad, acotado al dueño
+		tareaRepository.deleteByIdAndUsuarioId(id, userId);
+		contadores.sumar(tarea.getEstado(), tarea.getPrioridad(), -1);
+		searchIndex.eliminar(userId, List.of(id));
+		eventBroadcaster.publicar(userId, () -> TareaEvento.eliminada(id));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.miapp.gestortareas.service;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miapp.gestortareas.DTOs.TareaStatsResponse;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+import com.miapp.gestortareas.model.TareaContadoresModel;
+import com.miapp.gestortareas.repository.TareaContadoresRepository;
+import com.miapp.gestortareas.repository.TareaRepository;
+import com.miapp.gestortareas.repository.TareaRepository.ConteoTareas;
+import com.miapp.gestortareas.repository.UserRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Contadores de tareas por usuario. TareaService bloquea la fila del usuario al empezar
+ * cada escritura y la ajusta en la misma transacción, así que las estadísticas se leen
+ * de una sola fila sin recorrer la tabla de tareas. Si falta la fila (usuarios nuevos o
+ * anteriores a los contadores) se crea recontando en una transacción aparte; un trabajo
+ * nocturno los reconstruye todos.
+ */
+@Service
+@RequiredArgsConstructor
+public class TareaStatsService {
+	private static final Logger logger = LoggerFactory.getLogger(TareaStatsService.class);
+
+	private final TareaContadoresRepository contadoresRepository;
+	private final TareaRepository tareaRepository;
+	private final UserRepository userRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * Bloquea los contadores del usuario hasta el fin de la transacción en curso y los
+	 * devuelve gestionados: los cambios se escriben al hacer commit. Cada llamada anota
+	 * una nueva revisión, que se deshace con la transacción si esta falla.
+	 */
+	@Transactional(Transactional.TxType.MANDATORY)
+	public TareaContadoresModel bloquear(Long userId) {
+		TareaContadoresModel c = contadoresRepository.findForUpdate(userId)
+			.orElseGet(() -> {
+				// SELECT ... FOR UPDATE sobre una fila que no existe no bloquea nada: se crea aparte
+				// y se vuelve a pedir el bloqueo, que ya espera a cualquier otra escritura
+				crearSiFalta(userId);
+				return contadoresRepository.findForUpdate(userId).orElseThrow();
+			});
+		c.setRevision(c.getRevision() + 1);
+		return c;
+	}
+
+	/** Contadores a cero de un usuario recién creado, para que sus escrituras no tengan que crearlos. */
+	@Transactional
+	public void inicializar(Long userId) {
+		contadoresRepository.save(TareaContadoresModel.builder().userId(userId).build());
+	}
+
+	/**
+	 * Revisión actual de las tareas del usuario: cambia con cada escritura confirmada.
+	 * Es una lectura por clave primaria, sin bloqueo.
+	 */
+	public long revision(Long userId) {
+		return contadoresRepository.findRevisionByUserId(userId).orElse(0L);
+	}
+
+	public TareaStatsResponse obtener(Long userId) {
+		// Leer no es escribir: sin bloqueo y sin nueva revisión, para no invalidar los ETag del usuario
+		TareaContadoresModel c = contadoresRepository.findById(userId)
+			.orElseGet(() -> {
+				crearSiFalta(userId);
+				return contadoresRepository.findById(userId).orElseGet(() -> recontar(userId));
+			});
+
+		Map<Estado, Long> porEstado = new EnumMap<>(Estado.class);
+		porEstado.put(Estado.PENDIENTE, c.getPendientes());
+		porEstado.put(Estado.EN_PROGRESO, c.getEnProgreso());
+		porEstado.put(Estado.COMPLETADA, c.getCompletadas());
+		Map<Prioridad, Long> porPrioridad = new EnumMap<>(Prioridad.class);
+		porPrioridad.put(Prioridad.BAJA, c.getPrioridadBaja());
+		porPrioridad.put(Prioridad.MEDIA, c.getPrioridadMedia());
+		porPrioridad.put(Prioridad.ALTA, c.getPrioridadAlta());
+
+		// "Vencida" depende del día, no de una escritura: se cuenta por índice en cada lectura
+		long vencidas = tareaRepository.countVencidas(userId, LocalDate.now(), Estado.COMPLETADA);
+		return new TareaStatsResponse(c.total(), porEstado, porPrioridad, vencidas);
+	}
+
+	@Transactional
+	public void eliminar(Long userId) {
+		contadoresRepository.deleteByUserId(userId);
+	}
+
+	/**
+	 * Recalcula desde cero los contadores de todos los usuarios, cada uno en su transacción.
+	 * Devuelve el número de usuarios cuyos contadores no coincidían.
+	 */
+	public int reconstruirTodos() {
+		int corregidos = 0;
+		for (Long userId : userRepository.findAllIds()) {
+			try {
+				Boolean corregido = transactionTemplate.execute(status -> reconstruir(userId));
+				if (Boolean.TRUE.equals(corregido)) {
+					corregidos++;
+				}
+			} catch (DataIntegrityViolationException e) {
+				// Una escritura del usuario creó la fila mientras tanto, ya con sus valores correctos
+			}
+		}
+		return corregidos;
+	}
+
+	@Scheduled(cron = "${stats.repair.cron:0 30 3 * * *}")
+	public void reparacionProgramada() {
+		int corregidos = reconstruirTodos();
+		if (corregidos > 0) {
+			logger.warn("Contadores de tareas corregidos para {} usuarios", corregidos);
+		}
+	}
+
+	// Se bloquea la fila antes de recontar: una escritura concurrente espera y aplica su delta después
+	private boolean reconstruir(Long userId) {
+		TareaContadoresModel actual = contadoresRepository.findForUpdate(userId).orElse(null);
+		TareaContadoresModel recuento = recontar(userId);
+		if (actual == null) {
+			contadoresRepository.save(recuento);
+			return false;
+		}
+		// Recontar no cambia las tareas: se conserva la revisión para no invalidar los ETag
+		recuento.setRevision(actual.getRevision());
+		if (recuento.equals(actual)) {
+			return false;
+		}
+		contadoresRepository.save(recuento);
+		return true;
+	}
+
+	/**
+	 * Crea la fila del usuario recontando sus tareas, en una transacción propia: si otra
+	 * la crea a la vez, la clave primaria rechaza esta y basta con usar la existente.
+	 * La fila nueva conserva la revisión 0, la misma que se supone cuando falta.
+	 */
+	private void crearSiFalta(Long userId) {
+		TransactionTemplate nueva = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		nueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		try {
+			nueva.executeWithoutResult(status -> {
+				if (!contadoresRepository.existsById(userId)) {
+					contadoresRepository.saveAndFlush(recontar(userId));
+				}
+			});
+		} catch (DataIntegrityViolationException e) {
+			logger.debug("Contadores del usuario {} creados por otra transacción", userId);
+		}
+	}
+
+	private TareaContadoresModel recontar(Long userId) {
+		TareaContadoresModel c = TareaContadoresModel.builder().userId(userId).build();
+		List<ConteoTareas> conteos = tareaRepository.contarPorEstadoYPrioridad(userId);
+		for (ConteoTareas conteo : conteos) {
+			c.sumar(conteo.getEstado(), conteo.getPrioridad(), conteo.getTotal());
+		}
+		return c;
+	}
+}
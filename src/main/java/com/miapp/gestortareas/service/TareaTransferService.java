@@ -0,0 +1,435 @@
+package com.miapp.gestortareas.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miapp.gestortareas.DTOs.TareaImportRow;
+import com.miapp.gestortareas.DTOs.TareaResponse;
+import com.miapp.gestortareas.config.ReadOnlyTransactional;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Exportación e importación de las tareas de un usuario en CSV o NDJSON, en memoria constante.
+ * La exportación lee con un cursor JDBC de solo avance y escribe cada fila según llega; la
+ * importación lee un registro cada vez, valida y guarda por bloques de import-batch-size, cada
+ * uno en su transacción, y va respondiendo en NDJSON los errores de cada fila y el progreso.
+ */
+@Service
+public class TareaTransferService {
+	private static final Logger logger = LoggerFactory.getLogger(TareaTransferService.class);
+
+	public enum Formato { CSV, NDJSON }
+
+	private static final String[] COLUMNAS = {"id", "titulo", "descripcion", "estado", "prioridad", "fechaVencimiento", "createdAt", "updatedAt"};
+
+	// Orden de idx_tareas_user_created_id: la base de datos devuelve las filas sin ordenarlas antes
+	private static final String EXPORT_SQL = "SELECT id, titulo, descripcion, estado, prioridad, fecha_vencimiento, "
+		+ "created_at, updated_at FROM tareas WHERE user_id = ? ORDER BY created_at, id";
+
+	/** Línea de la respuesta de una importación: un error de fila o el progreso acumulado. */
+	public record ErrorFila(long linea, String error) {
+	}
+
+	/**
+	 * completado indica que se leyó toda la entrada; interrumpida, que la lectura se detuvo
+	 * antes del final y el resto del fichero no se importó.
+	 */
+	public record Progreso(long procesadas, long importadas, long errores, boolean completado, boolean interrumpida) {
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TareaService tareaService;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+	private final int fetchSize;
+	private final int importBatchSize;
+	private final int maxCaracteresFila;
+	private final Counter exportadas;
+	private final Counter importadas;
+	private final Counter rechazadas;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public TareaTransferService(JdbcTemplate jdbcTemplate,
+	                            TareaService tareaService,
+	                            Validator validator,
+	                            ObjectMapper objectMapper,
+	                            MeterRegistry meterRegistry,
+	                            @Value("${tareas.transfer.export-fetch-size:500}") int fetchSize,
+	                            @Value("${tareas.transfer.import-batch-size:500}") int importBatchSize,
+	                            @Value("${tareas.transfer.max-row-chars:65536}") int maxCaracteresFila) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.tareaService = tareaService;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.fetchSize = fetchSize;
+		this.importBatchSize = importBatchSize;
+		this.maxCaracteresFila = maxCaracteresFila;
+		this.exportadas = filas(meterRegistry, "export", "ok");
+		this.importadas = filas(meterRegistry, "import", "ok");
+		this.rechazadas = filas(meterRegistry, "import", "error");
+	}
+
+	private static Counter filas(MeterRegistry meterRegistry, String operacion, String resultado) {
+		return Counter.builder("tareas.transfer.filas")
+			.description("Filas exportadas e importadas, por resultado")
+			.tag("operacion", operacion)
+			.tag("resultado", resultado)
+			.register(meterRegistry);
+	}
+
+	public static Formato formato(String valor) {
+		try {
+			return Formato.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Formato no soportado: " + valor + ". Usa csv o ndjson.");
+		}
+	}
+
+	// ---------- EXPORTACIÓN ----------
+
+	/**
+	 * Escribe todas las tareas del usuario en la salida. Una transacción de solo lectura da una
+	 * foto coherente de la tabla (y va a la réplica si está activa); el cursor no carga más de
+	 * fetchSize filas a la vez. En MySQL hace falta useCursorFetch=true en la URL para que lo respete.
+	 */
+	@ReadOnlyTransactional
+	public long exportar(Long userId, Formato formato, OutputStream salida) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+		if (formato == Formato.CSV) {
+			TareaCsv.escribirFila(writer, (Object[]) COLUMNAS);
+		}
+		long[] total = {0};
+		try {
+			jdbcTemplate.query(con -> {
+				PreparedStatement ps = con.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				ps.setFetchSize(fetchSize);
+				ps.setLong(1, userId);
+				return ps;
+			}, (RowCallbackHandler) rs -> {
+				try {
+					escribir(writer, formato, leerFila(rs));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				total[0]++;
+			});
+		} catch (UncheckedIOException e) {
+			// El cliente cerró la conexión: se abandona el cursor
+			throw e.getCause();
+		}
+		writer.flush();
+		exportadas.increment(total[0]);
+		return total[0];
+	}
+
+	private static TareaResponse leerFila(ResultSet rs) throws SQLException {
+		Date fecha = rs.getDate("fecha_vencimiento");
+		Timestamp creada = rs.getTimestamp("created_at");
+		Timestamp actualizada = rs.getTimestamp("updated_at");
+		String estado = rs.getString("estado");
+		String prioridad = rs.getString("prioridad");
+		return new TareaResponse(
+			rs.getLong("id"),
+			rs.getString("titulo"),
+			rs.getString("descripcion"),
+			estado == null ? null : Estado.valueOf(estado),
+			prioridad == null ? null : Prioridad.valueOf(prioridad),
+			fecha == null ? null : fecha.toLocalDate(),
+			creada == null ? null : creada.toInstant(),
+			actualizada == null ? null : actualizada.toInstant());
+	}
+
+	private void escribir(Writer writer, Formato formato, TareaResponse t) throws IOException {
+		if (formato == Formato.CSV) {
+			TareaCsv.escribirFila(writer, t.getId(), t.getTitulo(), t.getDescripcion(), t.getEstado(), t.getPrioridad(),
+				t.getFechaVencimiento(), t.getCreatedAt(), t.getUpdatedAt());
+		} else {
+			writer.write(objectMapper.writeValueAsString(t));
+			writer.write('\n');
+		}
+	}
+
+	// ---------- IMPORTACIÓN ----------
+
+	/**
+	 * Importa las tareas de la entrada para el usuario. Las filas inválidas no detienen la
+	 * importación: se informan con su línea. Tras cada bloque se escribe el progreso y se vacía
+	 * la salida, y la última línea es el resumen: completado=true si se leyó toda la entrada, o
+	 * interrumpida=true si un registro CSV no se pudo delimitar y el resto no se leyó. Si la
+	 * cabecera CSV no es válida se lanza IllegalArgumentException antes de escribir nada.
+	 */
+	public Progreso importar(Long userId, Formato formato, InputStream entrada, OutputStream salida) throws IOException {
+		Reader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+		Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+		Fuente fuente = formato == Formato.CSV ? new FuenteCsv(reader) : new FuenteNdjson(reader);
+
+		long procesadas = 0;
+		long correctas = 0;
+		long errores = 0;
+		List<TareaImportRow> bloque = new ArrayList<>(importBatchSize);
+		List<Long> lineas = new ArrayList<>(importBatchSize);
+		boolean fin = false;
+		boolean interrumpida = false;
+		while (!fin) {
+			Fila fila;
+			try {
+				fila = fuente.siguiente();
+			} catch (IllegalArgumentException e) {
+				// Registro CSV imposible de delimitar: no se sabe dónde empieza el siguiente, así que
+				// se guarda lo leído y se termina informando de que la importación quedó a medias
+				escribirLinea(writer, new ErrorFila(fuente.lineaActual(), e.getMessage()));
+				errores++;
+				rechazadas.increment();
+				interrumpida = true;
+				fila = null;
+			}
+			fin = fila == null;
+			if (!fin) {
+				procesadas++;
+				String error = fila.error() != null ? fila.error() : validar(fila.datos());
+				if (error != null) {
+					escribirLinea(writer, new ErrorFila(fila.linea(), error));
+					errores++;
+					rechazadas.increment();
+				} else {
+					bloque.add(fila.datos());
+					lineas.add(fila.linea());
+				}
+			}
+			if (bloque.size() >= importBatchSize || (fin && !bloque.isEmpty())) {
+				long guardadas = guardar(userId, bloque, lineas, writer);
+				correctas += guardadas;
+				errores += bloque.size() - guardadas;
+				bloque.clear();
+				lineas.clear();
+				escribirLinea(writer, new Progreso(procesadas, correctas, errores, false, false));
+				writer.flush();
+			}
+		}
+		Progreso resumen = new Progreso(procesadas, correctas, errores, !interrumpida, interrumpida);
+		escribirLinea(writer, resumen);
+		writer.flush();
+		if (interrumpida) {
+			logger.warn("Importación del usuario {} interrumpida en la línea {}", userId, fuente.lineaActual());
+		}
+		logger.info("Importación del usuario {}: {} filas, {} importadas, {} con errores", userId, procesadas, correctas, errores);
+		return resumen;
+	}
+
+	// Un bloque que falla al guardarse (p. ej. por la base de datos) se informa fila a fila y se sigue con el siguiente
+	private long guardar(Long userId, List<TareaImportRow> bloque, List<Long> lineas, Writer writer) throws IOException {
+		try {
+			tareaService.importarLote(userId, bloque);
+			importadas.increment(bloque.size());
+			return bloque.size();
+		} catch (RuntimeException e) {
+			logger.warn("Bloque de importación del usuario {} descartado: {}", userId, e.getMessage());
+			for (Long linea : lineas) {
+				escribirLinea(writer, new ErrorFila(linea, "No se pudo guardar el bloque de la fila."));
+			}
+			rechazadas.increment(bloque.size());
+			return 0;
+		} finally {
+			// Con open-in-view el EntityManager dura toda la petición: se vacía para no acumular entidades
+			entityManager.clear();
+		}
+	}
+
+	private String validar(TareaImportRow fila) {
+		Set<ConstraintViolation<TareaImportRow>> violaciones = validator.validate(fila);
+		if (violaciones.isEmpty()) {
+			return null;
+		}
+		return violaciones.stream()
+			.map(v -> v.getPropertyPath() + ": " + v.getMessage())
+			.sorted()
+			.collect(Collectors.joining("; "));
+	}
+
+	private void escribirLinea(Writer writer, Object linea) throws IOException {
+		writer.write(objectMapper.writeValueAsString(linea));
+		writer.write('\n');
+	}
+
+	// ---------- LECTURA POR FILAS ----------
+
+	/** Fila leída: los datos o el motivo por el que no se pudo interpretar. */
+	private record Fila(long linea, TareaImportRow datos, String error) {
+	}
+
+	private interface Fuente {
+		/** Siguiente fila, o null al final de la entrada. */
+		Fila siguiente() throws IOException;
+
+		/** Línea en la que empieza la última fila leída o que se intentó leer. */
+		long lineaActual();
+	}
+
+	/** CSV con cabecera: las columnas se buscan por nombre y las desconocidas (id, createdAt...) se ignoran. */
+	private final class FuenteCsv implements Fuente {
+		private final TareaCsv.Lector lector;
+		private final Map<String, Integer> columnas = new HashMap<>();
+
+		FuenteCsv(Reader reader) throws IOException {
+			this.lector = new TareaCsv.Lector(reader, maxCaracteresFila);
+			List<String> cabecera = lector.siguiente();
+			if (cabecera == null) {
+				throw new IllegalArgumentException("El fichero está vacío: falta la cabecera CSV.");
+			}
+			for (int i = 0; i < cabecera.size(); i++) {
+				columnas.put(cabecera.get(i).trim().replace("\uFEFF", ""), i);
+			}
+			if (!columnas.containsKey("titulo") || !columnas.containsKey("prioridad")) {
+				throw new IllegalArgumentException("La cabecera CSV debe incluir al menos las columnas titulo y prioridad.");
+			}
+		}
+
+		@Override
+		public long lineaActual() {
+			return lector.lineaRegistro();
+		}
+
+		@Override
+		public Fila siguiente() throws IOException {
+			List<String> campos;
+			do {
+				campos = lector.siguiente();
+			} while (campos != null && campos.size() == 1 && campos.get(0).isBlank());
+			if (campos == null) {
+				return null;
+			}
+			long linea = lector.lineaRegistro();
+			try {
+				TareaImportRow fila = new TareaImportRow(
+					campo(campos, "titulo"),
+					campo(campos, "descripcion"),
+					enumerado(Estado.class, "estado", campo(campos, "estado")),
+					enumerado(Prioridad.class, "prioridad", campo(campos, "prioridad")),
+					fecha(campo(campos, "fechaVencimiento")));
+				return new Fila(linea, fila, null);
+			} catch (IllegalArgumentException e) {
+				return new Fila(linea, null, e.getMessage());
+			}
+		}
+
+		private String campo(List<String> campos, String nombre) {
+			Integer i = columnas.get(nombre);
+			if (i == null || i >= campos.size() || campos.get(i).isEmpty()) {
+				return null;
+			}
+			return campos.get(i);
+		}
+
+		private <E extends Enum<E>> E enumerado(Class<E> tipo, String nombre, String valor) {
+			if (valor == null) {
+				return null;
+			}
+			try {
+				return Enum.valueOf(tipo, valor.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException(nombre + ": valor no válido '" + valor + "'");
+			}
+		}
+
+		private LocalDate fecha(String valor) {
+			if (valor == null) {
+				return null;
+			}
+			try {
+				return LocalDate.parse(valor.trim());
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException("fechaVencimiento: se espera AAAA-MM-DD y se recibió '" + valor + "'");
+			}
+		}
+	}
+
+	/** Un objeto JSON por línea; las líneas en blanco se saltan y las demasiado largas se rechazan. */
+	private final class FuenteNdjson implements Fuente {
+		private final Reader reader;
+		private final StringBuilder linea = new StringBuilder();
+		private long numero;
+
+		FuenteNdjson(Reader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public long lineaActual() {
+			return numero;
+		}
+
+		@Override
+		public Fila siguiente() throws IOException {
+			while (true) {
+				linea.setLength(0);
+				boolean demasiadoLarga = false;
+				int c = reader.read();
+				if (c == -1) {
+					return null;
+				}
+				numero++;
+				while (c != -1 && c != '\n') {
+					if (linea.length() < maxCaracteresFila) {
+						linea.append((char) c);
+					} else {
+						demasiadoLarga = true;
+					}
+					c = reader.read();
+				}
+				if (demasiadoLarga) {
+					return new Fila(numero, null, "La línea supera " + maxCaracteresFila + " caracteres.");
+				}
+				if (linea.toString().isBlank()) {
+					continue;
+				}
+				try {
+					return new Fila(numero, objectMapper.readValue(linea.toString(), TareaImportRow.class), null);
+				} catch (JsonProcessingException e) {
+					return new Fila(numero, null, "JSON no válido: " + e.getOriginalMessage());
+				}
+			}
+		}
+	}
+}
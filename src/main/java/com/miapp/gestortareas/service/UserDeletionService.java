@@ -0,0 +1,100 @@
+package com.miapp.gestortareas.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miapp.gestortareas.DTOs.DeletionProgress;
+import com.miapp.gestortareas.model.UserModel;
+import com.miapp.gestortareas.repository.TareaRepository;
+import com.miapp.gestortareas.repository.UserRepository;
+import com.miapp.gestortareas.security.TokenVersionCache;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Borrado asíncrono de usuarios con muchas tareas. Las tareas se eliminan por bloques,
+ * cada uno en su propia transacción, para no bloquear la tabla ni llenar el heap;
+ * el progreso se puede consultar mientras tanto.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserDeletionService {
+	private static final Logger logger = LoggerFactory.getLogger(UserDeletionService.class);
+	private static final int CHUNK_SIZE = 1000;
+
+	private final UserRepository userRepository;
+	private final TareaRepository tareaRepository;
+	private final TokenVersionCache tokenVersionCache;
+	private final TareaSearchIndex tareaSearchIndex;
+	private final TareaStatsService tareaStatsService;
+	private final TransactionTemplate transactionTemplate;
+
+	// Los trabajos terminados se olvidan pasado un tiempo
+	private final Cache<String, DeletionProgress> trabajos = Caffeine.newBuilder()
+		.expireAfterWrite(Duration.ofHours(1))
+		.build();
+
+	/**
+	 * Registra el borrado y revoca los tokens del usuario para que no pueda seguir creando
+	 * tareas mientras se eliminan. El trabajo en sí lo ejecuta {@link #ejecutar}.
+	 */
+	public DeletionProgress registrar(Long userId) {
+		long total = transactionTemplate.execute(status -> {
+			UserModel user = userRepository.findById(userId)
+				.orElseThrow(() -> new NoSuchElementException("Usuario con ID " + userId + " no encontrado."));
+			user.setTokenVersion(user.getTokenVersion() + 1);
+			tokenVersionCache.invalidate(user.getEmail());
+			return tareaRepository.countByUsuarioId(userId);
+		});
+		DeletionProgress progress = new DeletionProgress(UUID.randomUUID().toString(), userId, total);
+		trabajos.put(progress.getJobId(), progress);
+		return progress;
+	}
+
+	@Async
+	public void ejecutar(DeletionProgress progress) {
+		Long userId = progress.getUserId();
+		try {
+			int eliminadas;
+			do {
+				eliminadas = transactionTemplate.execute(status -> {
+					List<Long> ids = tareaRepository.findIdsByUsuarioId(userId, PageRequest.of(0, CHUNK_SIZE));
+					return ids.isEmpty() ? 0 : tareaRepository.deleteByUsuarioIdAndIdIn(userId, ids);
+				});
+				progress.sumarEliminadas(eliminadas);
+			} while (eliminadas > 0);
+
+			// Último paso atómico: cualquier tarea residual y el propio usuario
+			transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId).ifPresent(user -> {
+				progress.sumarEliminadas(tareaRepository.deleteAllByUsuarioId(userId));
+				userRepository.delete(user);
+				tokenVersionCache.invalidate(user.getEmail());
+				tareaSearchIndex.invalidar(userId);
+				tareaStatsService.eliminar(userId);
+			}));
+			progress.completar();
+		} catch (RuntimeException e) {
+			logger.error("Error eliminando el usuario {}: {}", userId, e.getMessage());
+			progress.fallar(e.getMessage());
+		}
+	}
+
+	public DeletionProgress progreso(String jobId) {
+		DeletionProgress progress = trabajos.getIfPresent(jobId);
+		if (progress == null) {
+			throw new NoSuchElementException("Trabajo de borrado no encontrado.");
+		}
+		return progress;
+	}
+}
@@ -1,10 +1,18 @@
 package com.miapp.gestortareas.service;
 
-import java.util.List;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.miapp.gestortareas.DTOs.AuthResponse;
@@ -12,13 +20,20 @@ import com.miapp.gestortareas.DTOs.RegisterRequest;
 import com.miapp.gestortareas.DTOs.AdminCreateUserRequest;
 import com.miapp.gestortareas.DTOs.AdminUpdateUserRequest;
 import com.miapp.gestortareas.DTOs.ChangePasswordRequest;
+import com.miapp.gestortareas.DTOs.DeletionProgress;
 import com.miapp.gestortareas.DTOs.RefreshTokenRequest;
 import com.miapp.gestortareas.DTOs.UserResponse;
+import com.miapp.gestortareas.config.ReadOnlyTransactional;
 import com.miapp.gestortareas.exception.DuplicateResourceException;
 import com.miapp.gestortareas.model.UserModel;
 import com.miapp.gestortareas.repository.TareaRepository;
 import com.miapp.gestortareas.repository.UserRepository;
 import com.miapp.gestortareas.security.JwtUtil;
+import com.miapp.gestortareas.security.PasswordHashingService;
+import com.miapp.gestortareas.security.TokenVersionCache;
+import com.miapp.gestortareas.security.VerifiedToken;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -26,11 +41,17 @@ import lombok.RequiredArgsConstructor;
 @Service @RequiredArgsConstructor
 public class UserService {
     private final UserRepository repo;
-	private final PasswordEncoder encoder;
+	private final PasswordHashingService passwordHasher;
 	private final JwtUtil jwt;
 	private final TareaRepository tareaRepository;
+	private final TokenVersionCache tokenVersionCache;
+	private final ObjectMapper objectMapper;
+	private final UserDeletionService userDeletionService;
+	private final TareaSearchIndex tareaSearchIndex;
+	private final TareaStatsService tareaStatsService;
 
-	@Transactional
+	// register, createUser y changePassword no abren transacción propia: así no se retiene
+	// una conexión de la BD mientras se espera al pool de bcrypt. save() ya es transaccional.
 	public AuthResponse register(RegisterRequest req) {
 		// El registro público siempre crea usuarios con el rol ROLE_USER.
 		if (repo.existsByEmail(req.getEmail())) {
@@ -39,24 +60,32 @@ public class UserService {
 		UserModel userModel = UserModel.builder()
 			.nombre(req.getNombre())
 			.email(req.getEmail())
-			.password(encoder.encode(req.getPassword()))
+			.password(passwordHasher.encode(req.getPassword()))
 			.role("ROLE_USER")
 			.build();
-		UserModel savedUser = repo.save(userModel);
+		UserModel savedUser = guardarNuevo(userModel, "El email '" + req.getEmail() + "' ya está registrado.");
+		tareaStatsService.inicializar(savedUser.getId());
 		String accessToken = jwt.generarToken(savedUser.getEmail(), savedUser.getRole(), savedUser.getTokenVersion());
 		String refreshToken = jwt.generarRefreshToken(savedUser.getEmail(), savedUser.getTokenVersion());
 		return new AuthResponse(accessToken, refreshToken, 900L); // 15 minutos
 	}
 
 	public AuthResponse login(String email, String password) {
-		UserModel userModel = repo.findByEmail(email)
+		UserModel userModel = repo.findByEmailSinCache(email)
 				.orElseThrow(() -> new BadCredentialsException("Credenciales inválidas"));
-		if (!encoder.matches(password, userModel.getPassword())) throw new BadCredentialsException("Credenciales inválidas");
+		if (!passwordHasher.matches(password, userModel.getPassword())) throw new BadCredentialsException("Credenciales inválidas");
+
+		// Rehash transparente si el hash se generó con un coste distinto del configurado
+		if (passwordHasher.necesitaRehash(userModel.getPassword())) {
+			userModel.setPassword(passwordHasher.encode(password));
+			userModel = repo.save(userModel);
+		}
 		String accessToken = jwt.generarToken(userModel.getEmail(), userModel.getRole(), userModel.getTokenVersion());
 		String refreshToken = jwt.generarRefreshToken(userModel.getEmail(), userModel.getTokenVersion());
 		return new AuthResponse(accessToken, refreshToken, 900L);
 	}
 
+	@ReadOnlyTransactional
 	public UserResponse me(String email) {
 		UserModel user = repo.findByEmail(email).orElseThrow(() -> new NoSuchElementException("Usuario no encontrado."));
 		return mapToUserResponse(user);
@@ -65,7 +94,6 @@ public class UserService {
 	/**
 	 * Método para ser usado por un administrador para crear un nuevo usuario con un rol específico. Devuelve un DTO.
 	 */
-	@Transactional
 	public UserResponse createUser(AdminCreateUserRequest req) {
 		if (repo.existsByEmail(req.getEmail())) {
 			throw new DuplicateResourceException("El email '" + req.getEmail() + "' ya está en uso.");
@@ -73,18 +101,55 @@ public class UserService {
 		UserModel userModel = UserModel.builder()
 			.nombre(req.getNombre())
 			.email(req.getEmail())
-			.password(encoder.encode(req.getPassword()))
+			.password(passwordHasher.encode(req.getPassword()))
 			.role(req.getRole())
 			.build();
-		UserModel savedUser = repo.save(userModel);
+		UserModel savedUser = guardarNuevo(userModel, "El email '" + req.getEmail() + "' ya está en uso.");
+		tareaStatsService.inicializar(savedUser.getId());
 		return mapToUserResponse(savedUser);
 	}
 
-	public List<UserResponse> findAll() {
-		return repo.findAll()
-				.stream()
-				.map(this::mapToUserResponse)
-				.collect(Collectors.toList());
+	// existsByEmail y save no comparten transacción (bcrypt se calcula entre medias), así que dos
+	// altas simultáneas con el mismo email pueden pasar la comprobación: la restricción única decide
+	private UserModel guardarNuevo(UserModel userModel, String mensajeDuplicado) {
+		try {
+			return repo.save(userModel);
+		} catch (DataIntegrityViolationException e) {
+			throw new DuplicateResourceException(mensajeDuplicado);
+		}
+	}
+
+	/**
+	 * Listado paginado para administración, filtrable por rol y prefijo de email.
+	 * Se resuelve con una proyección: no se cargan entidades ni hashes de contraseña.
+	 */
+	@ReadOnlyTransactional
+	public Page<UserResponse> findAll(String role, String emailPrefix, Pageable pageable) {
+		String prefijo = (emailPrefix == null || emailPrefix.isBlank()) ? null : escaparLike(emailPrefix);
+		String rol = (role == null || role.isBlank()) ? null : role;
+		return repo.buscar(rol, prefijo, pageable);
+	}
+
+	/**
+	 * Exporta todos los usuarios como NDJSON (un objeto JSON por línea) recorriendo la tabla
+	 * con un cursor, de modo que la memoria usada no depende del número de usuarios.
+	 */
+	@Transactional
+	public void exportNdjson(OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try (Stream<UserResponse> usuarios = repo.streamAll()) {
+			Iterator<UserResponse> it = usuarios.iterator();
+			while (it.hasNext()) {
+				writer.write(objectMapper.writeValueAsString(it.next()));
+				writer.write('\n');
+			}
+		}
+		writer.flush();
+	}
+
+	// Escapa los comodines de LIKE para que el prefijo se compare literalmente
+	private String escaparLike(String valor) {
+		return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
 	}
 
 	private UserResponse mapToUserResponse(UserModel user) {
@@ -101,11 +166,28 @@ public class UserService {
 		UserModel user = repo.findById(id)
 				.orElseThrow(() -> new NoSuchElementException("Usuario con ID " + id + " no encontrado."));
 
-		// Eliminar todas las tareas asociadas al usuario
-		tareaRepository.deleteByUsuario(user);
+		// Eliminar todas las tareas asociadas al usuario con un único DELETE
+		tareaRepository.deleteAllByUsuarioId(user.getId());
 
 		// Eliminar el usuario
 		repo.delete(user);
+		tokenVersionCache.invalidate(user.getEmail());
+		tareaSearchIndex.invalidar(user.getId());
+		tareaStatsService.eliminar(user.getId());
+	}
+
+	/**
+	 * Variante asíncrona de deleteUser para cuentas con muchas tareas: borra por bloques
+	 * en segundo plano y devuelve el progreso inicial del trabajo.
+	 */
+	public DeletionProgress deleteUserAsync(Long id) {
+		DeletionProgress progress = userDeletionService.registrar(id);
+		userDeletionService.ejecutar(progress);
+		return progress;
+	}
+
+	public DeletionProgress deletionProgress(String jobId) {
+		return userDeletionService.progreso(jobId);
 	}
 
 	@Transactional
@@ -113,6 +195,9 @@ public class UserService {
 		UserModel user = repo.findById(id)
 				.orElseThrow(() -> new NoSuchElementException("Usuario con ID " + id + " no encontrado."));
 
+		// Los tokens emitidos con el email o rol anterior deben revalidarse contra la BD
+		tokenVersionCache.invalidate(user.getEmail());
+
 		// Si el email ha cambiado, verificar que el nuevo no esté ya en uso por otro usuario.
 		if (!user.getEmail().equalsIgnoreCase(request.getEmail())) {
 			if (repo.existsByEmail(request.getEmail())) {
@@ -129,31 +214,32 @@ public class UserService {
 		return mapToUserResponse(updatedUser);
 	}
 
-	@Transactional
 	public void changePassword(String email, ChangePasswordRequest request) {
 		if (!request.getNewPassword().equals(request.getConfirmPassword())) {
 			throw new IllegalArgumentException("La nueva contraseña y la confirmación no coinciden.");
 		}
 
-		UserModel user = repo.findByEmail(email)
+		UserModel user = repo.findByEmailSinCache(email)
 				.orElseThrow(() -> new NoSuchElementException("Usuario no encontrado.")); // No debería ocurrir si está autenticado
 
 		// Verificar la contraseña actual
-		if (!encoder.matches(request.getCurrentPassword(), user.getPassword())) {
+		if (!passwordHasher.matches(request.getCurrentPassword(), user.getPassword())) {
 			throw new BadCredentialsException("La contraseña actual es incorrecta.");
 		}
 
-		user.setPassword(encoder.encode(request.getNewPassword()));
+		user.setPassword(passwordHasher.encode(request.getNewPassword()));
 		repo.save(user);
+		tokenVersionCache.invalidate(user.getEmail());
 	}
 
 	@Transactional
 	public AuthResponse refreshToken(RefreshTokenRequest request) {
 		String refreshToken = request.getRefreshToken();
-		String email = jwt.extraerEmail(refreshToken);
-		Integer tokenVersion = jwt.extraerClaim(refreshToken, claims -> claims.get("version", Integer.class));
+		VerifiedToken verified = jwt.verificar(refreshToken);
+		String email = verified.email();
+		Integer tokenVersion = verified.version();
 
-		UserModel user = repo.findByEmail(email).orElseThrow(() -> new NoSuchElementException("Usuario del token no encontrado"));
+		UserModel user = repo.findByEmailSinCache(email).orElseThrow(() -> new NoSuchElementException("Usuario del token no encontrado"));
 
 		// Verificar que la versión del refresh token es la actual
 		if (tokenVersion == null || user.getTokenVersion() != tokenVersion) {
@@ -163,6 +249,7 @@ public class UserService {
 		// Incrementar la versión del token para invalidar todos los tokens antiguos
 		user.setTokenVersion(user.getTokenVersion() + 1);
 		repo.save(user);
+		tokenVersionCache.invalidate(user.getEmail());
 
 		String newAccessToken = jwt.generarToken(user.getEmail(), user.getRole(), user.getTokenVersion());
 		String newRefreshToken = jwt.generarRefreshToken(user.getEmail(), user.getTokenVersion());
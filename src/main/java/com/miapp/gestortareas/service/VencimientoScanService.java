@@ -0,0 +1,228 @@
+package com.miapp.gestortareas.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.miapp.gestortareas.DTOs.AvisoVencimiento;
+import com.miapp.gestortareas.DTOs.AvisoVencimiento.TareaAviso;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.VencimientoCheckpointModel;
+import com.miapp.gestortareas.repository.TareaRepository;
+import com.miapp.gestortareas.repository.TareaRepository.VencimientoTarea;
+import com.miapp.gestortareas.repository.VencimientoCheckpointRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Revisión diaria de vencimientos: recorre las tareas sin completar que vencieron hace como
+ * mucho atraso-dias o vencen en los próximos aviso-dias, por bloques con cursor sobre
+ * idx_tareas_vence_estado_id. Cada bloque se lee en su propia consulta de solo lectura (sin
+ * bloquear tareas), se agrupa por usuario, se entrega al VencimientoSink y se anota en un punto
+ * de control; la memoria no depende del número de filas y una revisión interrumpida continúa
+ * desde el último bloque entregado.
+ */
+@Service
+public class VencimientoScanService {
+	private static final Logger logger = LoggerFactory.getLogger(VencimientoScanService.class);
+
+	private final TareaRepository tareaRepository;
+	private final VencimientoCheckpointRepository checkpointRepository;
+	private final VencimientoSink sink;
+	private final int batchSize;
+	private final int avisoDias;
+	private final int atrasoDias;
+
+	// Una sola revisión a la vez en este proceso (la programada y la reanudación al arrancar)
+	private final AtomicBoolean enCurso = new AtomicBoolean();
+	private final AtomicLong ultimaCompletada = new AtomicLong();
+
+	private final Counter tareasVencidas;
+	private final Counter tareasProximas;
+	private final Counter avisos;
+	private final Counter lotes;
+	private final Counter completadas;
+	private final Counter fallidas;
+	private final Timer loteTimer;
+
+	public VencimientoScanService(TareaRepository tareaRepository,
+	                              VencimientoCheckpointRepository checkpointRepository,
+	                              VencimientoSink sink,
+	                              MeterRegistry meterRegistry,
+	                              @Value("${vencimientos.scan.batch-size:500}") int batchSize,
+	                              @Value("${vencimientos.scan.aviso-dias:2}") int avisoDias,
+	                              @Value("${vencimientos.scan.atraso-dias:7}") int atrasoDias) {
+		this.tareaRepository = tareaRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.sink = sink;
+		this.batchSize = batchSize;
+		this.avisoDias = avisoDias;
+		this.atrasoDias = atrasoDias;
+
+		this.tareasVencidas = tareas(meterRegistry, "vencida");
+		this.tareasProximas = tareas(meterRegistry, "proxima");
+		this.avisos = Counter.builder("vencimientos.scan.avisos")
+			.description("Avisos entregados al destino, uno por usuario y bloque")
+			.register(meterRegistry);
+		this.lotes = Counter.builder("vencimientos.scan.lotes")
+			.description("Bloques procesados")
+			.register(meterRegistry);
+		this.completadas = ejecuciones(meterRegistry, "completada");
+		this.fallidas = ejecuciones(meterRegistry, "fallida");
+		this.loteTimer = Timer.builder("vencimientos.scan.lote")
+			.description("Tiempo por bloque: lectura, entrega y punto de control")
+			.register(meterRegistry);
+		Gauge.builder("vencimientos.scan.en-curso", enCurso, en -> en.get() ? 1 : 0)
+			.description("1 mientras hay una revisión en curso")
+			.register(meterRegistry);
+		Gauge.builder("vencimientos.scan.ultima-completada", ultimaCompletada, AtomicLong::get)
+			.description("Instante (epoch s) en que terminó la última revisión")
+			.register(meterRegistry);
+	}
+
+	private static Counter tareas(MeterRegistry meterRegistry, String tipo) {
+		return Counter.builder("vencimientos.scan.tareas")
+			.description("Tareas incluidas en avisos")
+			.tag("tipo", tipo)
+			.register(meterRegistry);
+	}
+
+	private static Counter ejecuciones(MeterRegistry meterRegistry, String resultado) {
+		return Counter.builder("vencimientos.scan.ejecuciones")
+			.description("Revisiones terminadas, por resultado")
+			.tag("resultado", resultado)
+			.register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${vencimientos.scan.cron:0 0 2 * * *}")
+	public void revisionProgramada() {
+		revisar(LocalDate.now());
+	}
+
+	/**
+	 * Si el proceso se detuvo a mitad de la revisión de hoy, la continúa al arrancar.
+	 * Las de días anteriores no: la revisión de hoy ya incluye sus tareas vencidas.
+	 */
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void reanudarInterrumpida() {
+		LocalDate hoy = LocalDate.now();
+		checkpointRepository.findById(hoy)
+			.filter(checkpoint -> !checkpoint.isCompletado())
+			.ifPresent(checkpoint -> {
+				logger.info("Reanudando la revisión de vencimientos del {} tras {} tareas", hoy, checkpoint.getTareas());
+				revisar(hoy);
+			});
+	}
+
+	/**
+	 * Ejecuta (o continúa) la revisión del día indicado. Devuelve su punto de control, o null
+	 * si ya había otra en curso. Una revisión completada no se repite.
+	 */
+	public VencimientoCheckpointModel revisar(LocalDate fecha) {
+		if (!enCurso.compareAndSet(false, true)) {
+			logger.warn("Revisión de vencimientos del {} omitida: ya hay una en curso", fecha);
+			return null;
+		}
+		try {
+			VencimientoCheckpointModel checkpoint = checkpointRepository.findById(fecha)
+				.orElseGet(() -> VencimientoCheckpointModel.builder()
+					.fecha(fecha)
+					.desde(fecha.minusDays(atrasoDias))
+					.hasta(fecha.plusDays(avisoDias))
+					.iniciado(Instant.now())
+					.build());
+			if (checkpoint.isCompletado()) {
+				return checkpoint;
+			}
+
+			boolean quedan = true;
+			while (quedan) {
+				long inicio = System.nanoTime();
+				List<VencimientoTarea> bloque = siguienteBloque(checkpoint);
+				if (!bloque.isEmpty()) {
+					List<AvisoVencimiento> avisosBloque = agrupar(fecha, bloque);
+					sink.entregar(avisosBloque);
+					// El punto de control se guarda después de entregar: un fallo entre medias repite el bloque
+					VencimientoTarea ultima = bloque.get(bloque.size() - 1);
+					checkpoint.setUltimaFecha(ultima.getFechaVencimiento());
+					checkpoint.setUltimoEstado(ultima.getEstado());
+					checkpoint.setUltimoId(ultima.getId());
+					checkpoint.setTareas(checkpoint.getTareas() + bloque.size());
+					checkpoint.setAvisos(checkpoint.getAvisos() + avisosBloque.size());
+					checkpoint.setLotes(checkpoint.getLotes() + 1);
+					for (AvisoVencimiento aviso : avisosBloque) {
+						tareasVencidas.increment(aviso.getVencidas().size());
+						tareasProximas.increment(aviso.getProximas().size());
+					}
+					avisos.increment(avisosBloque.size());
+					lotes.increment();
+				}
+				quedan = bloque.size() == batchSize;
+				checkpoint.setCompletado(!quedan);
+				checkpoint.setActualizado(Instant.now());
+				checkpoint = checkpointRepository.save(checkpoint);
+				loteTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+			}
+
+			completadas.increment();
+			ultimaCompletada.set(Instant.now().getEpochSecond());
+			logger.info("Revisión de vencimientos del {} completada: {} tareas, {} avisos en {} bloques",
+				fecha, checkpoint.getTareas(), checkpoint.getAvisos(), checkpoint.getLotes());
+			return checkpoint;
+		} catch (RuntimeException e) {
+			fallidas.increment();
+			logger.error("Revisión de vencimientos del {} interrumpida: {}", fecha, e.getMessage());
+			throw e;
+		} finally {
+			enCurso.set(false);
+		}
+	}
+
+	private List<VencimientoTarea> siguienteBloque(VencimientoCheckpointModel checkpoint) {
+		PageRequest bloque = PageRequest.of(0, batchSize);
+		if (checkpoint.getUltimoId() == null) {
+			return tareaRepository.findVencimientosPrimerBloque(
+				checkpoint.getDesde(), checkpoint.getHasta(), Estado.COMPLETADA, bloque);
+		}
+		return tareaRepository.findVencimientosDespues(
+			checkpoint.getDesde(), checkpoint.getHasta(), Estado.COMPLETADA,
+			checkpoint.getUltimaFecha(), checkpoint.getUltimoEstado(), checkpoint.getUltimoId(), bloque);
+	}
+
+	// Un aviso por usuario dentro del bloque, en el orden en que aparece cada usuario
+	private List<AvisoVencimiento> agrupar(LocalDate fecha, List<VencimientoTarea> bloque) {
+		Map<Long, AvisoVencimiento> porUsuario = new LinkedHashMap<>();
+		for (VencimientoTarea tarea : bloque) {
+			AvisoVencimiento aviso = porUsuario.computeIfAbsent(tarea.getUsuarioId(),
+				userId -> new AvisoVencimiento(userId, fecha, new ArrayList<>(), new ArrayList<>()));
+			TareaAviso tareaAviso = new TareaAviso(tarea.getId(), tarea.getTitulo(), tarea.getPrioridad(),
+				tarea.getEstado(), tarea.getFechaVencimiento());
+			if (tarea.getFechaVencimiento().isBefore(fecha)) {
+				aviso.getVencidas().add(tareaAviso);
+			} else {
+				aviso.getProximas().add(tareaAviso);
+			}
+		}
+		return new ArrayList<>(porUsuario.values());
+	}
+}
@@ -0,0 +1,15 @@
+package com.miapp.gestortareas.service;
+
+import java.util.List;
+
+import com.miapp.gestortareas.DTOs.AvisoVencimiento;
+
+/**
+ * Destino de los avisos de vencimiento (vencimientos.sink.type). Recibe los avisos de un
+ * bloque de una vez; si lanza una excepción la revisión se detiene y el bloque se vuelve a
+ * entregar al reanudarla, así que la entrega es "al menos una vez".
+ */
+public interface VencimientoSink {
+
+	void entregar(List<AvisoVencimiento> avisos);
+}
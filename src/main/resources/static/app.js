@@ -86,10 +86,28 @@ document.addEventListener('DOMContentLoaded', () => {
 
         const createTaskForm = document.getElementById('create-task-form');
 
-        // Función para OBTENER y RENDERIZAR las tareas desde la API
-        const fetchAndRenderTasks = async () => {
+        // Estado del scroll infinito (paginación por cursor)
+        const PAGE_SIZE = 20;
+        let nextCursor = null;
+        let hasNext = false;
+        let loading = false;
+        let reloadPending = false; // Recarga completa pedida mientras se cargaba una página
+
+        // Función para OBTENER y RENDERIZAR las tareas desde la API.
+        // Con append = true se pide la página siguiente al cursor y se añade al final.
+        const fetchAndRenderTasks = async (append = false) => {
+            if (loading) {
+                // Una recarga completa (p. ej. por "resync") no se pierde: se hace al terminar
+                if (!append) reloadPending = true;
+                return;
+            }
+            loading = true;
             try {
-                const response = await fetch('/api/tareas', {
+                let url = `/api/tareas/cursor?size=${PAGE_SIZE}`;
+                if (append && nextCursor) {
+                    url += `&cursor=${encodeURIComponent(nextCursor)}`;
+                }
+                const response = await fetch(url, {
                     headers: { 'Authorization': `Bearer ${token}` }
                 });
 
@@ -103,52 +121,167 @@ document.addEventListener('DOMContentLoaded', () => {
                 }
 
                 const page = await response.json();
-                const tasks = page.content; // La API devuelve una página, las tareas están en "content"
-                renderTasks(tasks);
+                nextCursor = page.nextCursor;
+                hasNext = page.hasNext;
+                renderTasks(page.content, append); // Las tareas están en "content"
 
             } catch (error) {
                 console.error('Error al obtener tareas:', error);
                 taskListContainer.innerHTML = `<div class="empty-list-message"><p>Error al cargar las tareas.</p></div>`;
+            } finally {
+                loading = false;
+                if (reloadPending) {
+                    reloadPending = false;
+                    fetchAndRenderTasks();
+                }
             }
         };
 
         // Función para DIBUJAR las tareas en el HTML
-        const renderTasks = (tasks) => {
-            taskListContainer.innerHTML = ''; // Limpia la lista
-            if (tasks.length === 0) {
-                taskListContainer.innerHTML = `<div class="empty-list-message"><h4>¡Felicidades!</h4><p>No tienes tareas pendientes. Puedes añadir una nueva usando el formulario de arriba.</p></div>`;
-                return;
+        const renderTasks = (tasks, append = false) => {
+            if (!append) {
+                taskListContainer.innerHTML = ''; // Limpia la lista
+                if (tasks.length === 0) {
+                    taskListContainer.innerHTML = `<div class="empty-list-message"><h4>¡Felicidades!</h4><p>No tienes tareas pendientes. Puedes añadir una nueva usando el formulario de arriba.</p></div>`;
+                    return;
+                }
             }
 
-            tasks.forEach(task => {
-                const taskElement = document.createElement('div');
-                taskElement.className = 'task-item';
-                taskElement.dataset.id = task.id;
-                taskElement.dataset.priority = task.prioridad;
-
-                taskElement.innerHTML = `
-                    <div class="task-item-header"><h4>${task.titulo}</h4></div>
-                    <div class="task-item-body"><p>${task.descripcion || ''}</p></div>
-                    <div class="task-item-footer">
-                        <span class="task-status">${task.estado.replace('_', ' ')}</span>
-                        <div class="task-actions">
-                            <button class="btn-edit" title="Editar"><i class="fas fa-pencil-alt"></i></button>
-                            <button class="btn-delete" title="Eliminar"><i class="fas fa-trash-alt"></i></button>
-                        </div>
+            tasks.forEach(task => taskListContainer.appendChild(createTaskElement(task)));
+        };
+
+        // Crea el elemento HTML de una tarea
+        const createTaskElement = (task) => {
+            const taskElement = document.createElement('div');
+            taskElement.className = 'task-item';
+            taskElement.dataset.id = task.id;
+            taskElement.dataset.priority = task.prioridad;
+
+            taskElement.innerHTML = `
+                <div class="task-item-header"><h4>${task.titulo}</h4></div>
+                <div class="task-item-body"><p>${task.descripcion || ''}</p></div>
+                <div class="task-item-footer">
+                    <span class="task-status">${task.estado.replace('_', ' ')}</span>
+                    <div class="task-actions">
+                        <button class="btn-edit" title="Editar"><i class="fas fa-pencil-alt"></i></button>
+                        <button class="btn-delete" title="Eliminar"><i class="fas fa-trash-alt"></i></button>
                     </div>
-                `;
-                taskListContainer.appendChild(taskElement);
+                </div>
+            `;
+
+            // Event listener del botón de eliminar de esta tarea
+            taskElement.querySelector('.btn-delete').addEventListener('click', () => {
+                handleDeleteTask(task.id);
             });
+            return taskElement;
+        };
 
-            // Añadir event listeners para los botones de eliminar
-            document.querySelectorAll('.btn-delete').forEach(button => {
-                button.addEventListener('click', (e) => {
-                    const taskId = e.target.closest('.task-item').dataset.id;
-                    handleDeleteTask(taskId);
-                });
+        // --- Cambios aplicados en su sitio, sin recargar la lista ---
+        const findTaskElement = (taskId) => taskListContainer.querySelector(`.task-item[data-id="${taskId}"]`);
+
+        // Inserta o reemplaza una tarea. Si aún quedan páginas por cargar, una tarea nueva
+        // aparecerá al final cuando se llegue a ella con el scroll.
+        const upsertTask = (task) => {
+            const existing = findTaskElement(task.id);
+            if (existing) {
+                existing.replaceWith(createTaskElement(task));
+            } else if (!hasNext) {
+                taskListContainer.querySelector('.empty-list-message')?.remove();
+                taskListContainer.appendChild(createTaskElement(task));
+            }
+        };
+
+        const removeTask = (taskId) => {
+            findTaskElement(taskId)?.remove();
+            if (!taskListContainer.querySelector('.task-item') && !hasNext) {
+                renderTasks([]);
+            }
+        };
+
+        const updateTaskEstado = (taskId, estado) => {
+            const status = findTaskElement(taskId)?.querySelector('.task-status');
+            if (status) status.textContent = estado.replace('_', ' ');
+        };
+
+        const applyTaskEvent = (evento) => {
+            switch (evento.tipo) {
+                case 'CREADA':
+                case 'ACTUALIZADA':
+                    upsertTask(evento.tarea);
+                    break;
+                case 'ESTADO':
+                    updateTaskEstado(evento.tareaId, evento.estado);
+                    break;
+                case 'ELIMINADA':
+                    removeTask(evento.tareaId);
+                    break;
+                case 'IMPORTADAS':
+                    fetchAndRenderTasks(); // Un bloque de importación: se recarga la lista
+                    break;
+            }
+        };
+
+        // --- Flujo de eventos (SSE) ---
+        // Se lee con fetch en lugar de EventSource porque este no permite enviar la cabecera
+        // Authorization. Al cortarse se reconecta con Last-Event-ID para recibir lo perdido.
+        let lastEventId = null;
+        const handleSseMessage = (raw) => {
+            let event = 'message';
+            let id = null;
+            const data = [];
+            raw.split('\n').forEach(line => {
+                if (line.startsWith(':')) return; // latido
+                const colon = line.indexOf(':');
+                const field = colon < 0 ? line : line.slice(0, colon);
+                const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+                if (field === 'event') event = value;
+                else if (field === 'id') id = value;
+                else if (field === 'data') data.push(value);
             });
+            if (id !== null) lastEventId = id;
+            if (event === 'tarea') {
+                applyTaskEvent(JSON.parse(data.join('\n')));
+            } else if (event === 'resync') {
+                fetchAndRenderTasks(); // Se perdieron eventos: se recarga la lista completa
+            }
+        };
+
+        const connectTaskStream = async () => {
+            try {
+                const headers = { 'Authorization': `Bearer ${token}` };
+                if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+                const response = await fetch('/api/tareas/stream', { headers });
+                if (response.status === 403) return; // Sesión caducada: fetchAndRenderTasks ya redirige
+                if (!response.ok) throw new Error(`HTTP ${response.status}`);
+
+                const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = '';
+                while (true) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value.replace(/\r\n?/g, '\n');
+                    let end;
+                    while ((end = buffer.indexOf('\n\n')) >= 0) {
+                        handleSseMessage(buffer.slice(0, end));
+                        buffer = buffer.slice(end + 2);
+                    }
+                }
+            } catch (error) {
+                console.warn('Flujo de eventos interrumpido:', error);
+            }
+            setTimeout(connectTaskStream, 2000);
         };
 
+        // Centinela al final de la lista: al hacerse visible se carga la página siguiente
+        const scrollSentinel = document.createElement('div');
+        scrollSentinel.className = 'scroll-sentinel';
+        taskListContainer.after(scrollSentinel);
+        new IntersectionObserver(entries => {
+            if (entries[0].isIntersecting && hasNext) {
+                fetchAndRenderTasks(true);
+            }
+        }).observe(scrollSentinel);
+
         // Función para MANEJAR LA ELIMINACIÓN de una tarea
         const handleDeleteTask = async (taskId) => {
             if (!confirm('¿Estás seguro de que quieres eliminar esta tarea?')) return;
@@ -160,7 +293,7 @@ document.addEventListener('DOMContentLoaded', () => {
                 });
 
                 if (response.ok) {
-                    fetchAndRenderTasks(); // Recarga la lista de tareas
+                    removeTask(taskId); // El evento del flujo llegará también y no hará nada
                 } else if (response.status === 403) {
                     alert('Error al eliminar: No tienes permisos de Administrador para realizar esta acción.');
                 } else {
@@ -190,7 +323,7 @@ document.addEventListener('DOMContentLoaded', () => {
                 });
 
                 if (response.ok) {
-                    fetchAndRenderTasks(); // Recarga la lista de tareas
+                    upsertTask(await response.json()); // El evento del flujo la reemplaza, no la duplica
                     createTaskForm.reset(); // Limpia el formulario
                 } else {
                     const errorData = await response.json();
@@ -211,7 +344,8 @@ document.addEventListener('DOMContentLoaded', () => {
             });
         }
 
-        // Carga inicial de las tareas al entrar a la página
+        // Carga inicial de las tareas al entrar a la página y suscripción a los cambios
         fetchAndRenderTasks();
+        connectTaskStream();
     }
 });
@@ -0,0 +1,155 @@
+package com.miapp.gestortareas.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.miapp.gestortareas.DTOs.TareaFiltro;
+import com.miapp.gestortareas.model.Estado;
+import com.miapp.gestortareas.model.Prioridad;
+
+/**
+ * Comprueba con EXPLAIN de H2 que cada combinación de filtros de GET /api/tareas usa su
+ * índice compuesto. La SQL es la que genera Hibernate para TareaSpecifications, con los
+ * valores en línea para poder pasarla a EXPLAIN tal cual.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.miapp.gestortareas.repository.TareaFiltroIndexTest$CapturaSql"
+})
+class TareaFiltroIndexTest {
+
+    private static final int USUARIOS = 20;
+    private static final int TAREAS_POR_USUARIO = 300;
+    private static final LocalDate HOY = LocalDate.of(2026, 1, 15);
+    private static final Instant AHORA = Instant.parse("2026-01-15T10:00:00Z");
+
+    /** Guarda las sentencias que prepara Hibernate. */
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> sentencias = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            sentencias.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void cargarDatos() {
+        userId = 7L;
+        // ANALYZE confirma la transacción del test: los datos siguen ahí en los siguientes casos
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tareas", Long.class) > 0) {
+            return;
+        }
+        // Varios usuarios con tareas variadas, para que user_id sea selectivo y el optimizador
+        // tenga que elegir entre los índices que empiezan por él
+        List<Object[]> tareas = new ArrayList<>();
+        Estado[] estados = Estado.values();
+        Prioridad[] prioridades = Prioridad.values();
+        long id = 1;
+        for (int u = 1; u <= USUARIOS; u++) {
+            jdbcTemplate.update("INSERT INTO usuarios (id, nombre, email, password, role, token_version) VALUES (?, ?, ?, ?, ?, 0)",
+                    u, "u" + u, "u" + u + "@test.com", "x", "ROLE_USER");
+            for (int i = 0; i < TAREAS_POR_USUARIO; i++, id++) {
+                Instant creada = AHORA.minus(i, ChronoUnit.HOURS);
+                tareas.add(new Object[] {
+                    id, "tarea " + id, null,
+                    estados[i % estados.length].name(), prioridades[(i / estados.length) % prioridades.length].name(),
+                    Date.valueOf(HOY.plusDays(i % 90 - 45)), Timestamp.from(creada), Timestamp.from(creada.plusSeconds(i * 60L)), u
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tareas (id, titulo, descripcion, estado, prioridad, fecha_vencimiento, "
+                + "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", tareas);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static List<Arguments> combinaciones() {
+        return List.of(
+            combinacion("estado", "idx_tareas_user_estado_prioridad_vence",
+                f -> f.setEstado(List.of(Estado.PENDIENTE))),
+            combinacion("estado + prioridad", "idx_tareas_user_estado_prioridad_vence", f -> {
+                f.setEstado(List.of(Estado.PENDIENTE));
+                f.setPrioridad(List.of(Prioridad.ALTA));
+            }),
+            combinacion("estado + prioridad + vencimiento", "idx_tareas_user_estado_prioridad_vence", f -> {
+                f.setEstado(List.of(Estado.PENDIENTE));
+                f.setPrioridad(List.of(Prioridad.ALTA));
+                f.setVenceDesde(HOY);
+                f.setVenceHasta(HOY.plusDays(7));
+            }),
+            combinacion("prioridad", "idx_tareas_user_prioridad_vence",
+                f -> f.setPrioridad(List.of(Prioridad.ALTA))),
+            combinacion("prioridad + vencimiento", "idx_tareas_user_prioridad_vence", f -> {
+                f.setPrioridad(List.of(Prioridad.ALTA));
+                f.setVenceDesde(HOY);
+                f.setVenceHasta(HOY.plusDays(7));
+            }),
+            combinacion("vencimiento", "idx_tareas_user_vence", f -> {
+                f.setVenceDesde(HOY);
+                f.setVenceHasta(HOY.plusDays(7));
+            }),
+            combinacion("creación", "idx_tareas_user_created_id", f -> {
+                f.setCreadaDesde(AHORA.minus(2, ChronoUnit.DAYS));
+                f.setCreadaHasta(AHORA);
+            }),
+            combinacion("modificación", "idx_tareas_user_updated", f -> {
+                f.setActualizadaDesde(AHORA.minus(2, ChronoUnit.DAYS));
+                f.setActualizadaHasta(AHORA);
+            })
+        );
+    }
+
+    private static Arguments combinacion(String nombre, String indice, Consumer<TareaFiltro> filtro) {
+        TareaFiltro f = new TareaFiltro();
+        filtro.accept(f);
+        return Arguments.of(nombre, indice, f);
+    }
+
+    @ParameterizedTest(name = "{0} usa {1}")
+    @MethodSource("combinaciones")
+    void cadaFiltroUsaSuIndice(String nombre, String indice, TareaFiltro filtro) {
+        CapturaSql.sentencias.clear();
+        // Mismo orden por defecto que GET /api/tareas; sin paginar para que la SQL no lleve parámetros
+        tareaRepository.findResponses(
+                TareaSpecifications.delUsuario(userId).and(TareaSpecifications.conFiltro(filtro)),
+                Pageable.unpaged(Sort.by("createdAt")));
+
+        String select = CapturaSql.sentencias.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from tareas "))
+                .findFirst()
+                .orElseThrow();
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + select, String.class);
+
+        assertThat(plan).as("plan de '%s':%n%s", nombre, plan).containsIgnoringCase(indice + ":");
+    }
+}